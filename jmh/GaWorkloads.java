@@ -0,0 +1,170 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Phần thân các benchmark JMH trong jmh/bench (chạy bằng: gradle jmh).
+ *
+ * JMH không nhận lớp @Benchmark ở package mặc định, còn lớp ở package có tên thì không import được lớp
+ * ở package mặc định (toàn bộ src/). Vì vậy mã đo được viết ở đây (cùng package với src/, gọi được cả hàm
+ * package-private), mỗi thao tác là 1 LongSupplier; lớp benchmark chỉ gọi op.getAsLong() — lời gọi interface
+ * đơn hình trong mỗi fork nên JIT inline được — và JMH đưa giá trị trả về vào Blackhole.
+ *
+ * Các thao tác làm thay đổi cá thể (repair, expand, mutate) chạy trên bản sao mới ở mỗi op;
+ * chi phí sao chép được đo riêng ở "clone" để trừ ra khi cần.
+ */
+public final class GaWorkloads {
+
+    private static final int GENOMES = 64;
+
+    private GaWorkloads() {}
+
+    // ============================================================
+    // ĐỒ THỊ + CÁ THỂ (tham số: file input, cài đặt Graph)
+    // ============================================================
+
+    /** Thao tác trên Graph / Individual với đồ thị input nạp bằng GraphLoader theo cài đặt representation */
+    public static Map<String, LongSupplier> graphOps(String input, String representation) throws IOException {
+        GraphBuilder.Representation repr = GraphBuilder.Representation.valueOf(representation);
+        Graph g = GraphLoader.load(Path.of(input), 1, repr).getGraph();
+        int n = g.size();
+        SplittableRandom r = new SplittableRandom(42);
+        Map<String, LongSupplier> ops = new LinkedHashMap<>();
+
+        int[] us = new int[1024];
+        int[] vs = new int[1024];
+        for (int i = 0; i < us.length; i++) {
+            us[i] = 1 + r.nextInt(n);
+            vs[i] = 1 + r.nextInt(n);
+        }
+        int[] cursor = {0};
+        ops.put("isEdge", () -> {
+            int i = cursor[0]++ & 1023;
+            return g.isEdge(us[i], vs[i]) ? 1 : 0;
+        });
+
+        int[] pairs = edgePairs(g);
+        ops.put("build", () -> new GraphBuilder(n).addEdgePairs(pairs, pairs.length).build(repr).edgeCount());
+
+        // Bộ gen ngẫu nhiên 50% (giống khởi tạo quần thể) để đo từng pha đánh giá
+        List<long[]> genomes = new ArrayList<>();
+        for (int i = 0; i < GENOMES; i++) genomes.add(randomGenes(g, r));
+        List<Individual> repaired = new ArrayList<>();
+        for (long[] genes : genomes) {
+            Individual ind = Individual.fromGenes(g, genes.clone());
+            ind.repairToClique();
+            repaired.add(ind);
+        }
+        List<Individual> evaluated = new ArrayList<>();
+        for (long[] genes : genomes) {
+            Individual ind = Individual.fromGenes(g, genes.clone());
+            ind.calculateFitness(r);
+            evaluated.add(ind);
+        }
+
+        ops.put("clone", () -> evaluated.get(cursor[0]++ & (GENOMES - 1)).cloneIndividual().getGeneWords().length);
+        ops.put("calculateFitness", () -> {
+            Individual ind = Individual.fromGenes(g, genomes.get(cursor[0]++ & (GENOMES - 1)).clone());
+            ind.calculateFitness(r);
+            return ind.getFitness();
+        });
+        ops.put("repair", () -> {
+            Individual ind = Individual.fromGenes(g, genomes.get(cursor[0]++ & (GENOMES - 1)).clone());
+            ind.repairToClique();
+            return ind.getGeneWords()[0];
+        });
+        for (ExpandPolicy policy : ExpandPolicy.values()) {
+            ops.put("expand." + policy, () -> {
+                Individual ind = repaired.get(cursor[0]++ & (GENOMES - 1)).cloneIndividual();
+                ind.greedyExpand(r, policy);
+                return ind.getGeneWords()[0];
+            });
+        }
+        ops.put("index", () -> {
+            Individual ind = evaluated.get(cursor[0]++ & (GENOMES - 1));
+            ind.calculateIndex();
+            return (long) (ind.getIndexScore() * 1e9);
+        });
+        ops.put("crossoverAndEvaluate", () -> {
+            int i = cursor[0]++;
+            return Individual.crossover(evaluated.get(i & (GENOMES - 1)), evaluated.get((i + 1) & (GENOMES - 1)), r)
+                    .getFitness();
+        });
+
+        // Toán tử chọn được (không tính fitness) — so sánh bản từng bit với bản theo word / bước nhảy
+        for (StandardCrossover op : StandardCrossover.values()) {
+            ops.put("crossover." + op, () -> {
+                int i = cursor[0]++;
+                return op.crossover(evaluated.get(i & (GENOMES - 1)), evaluated.get((i + 1) & (GENOMES - 1)), r)
+                        .getFingerprint();
+            });
+        }
+        for (StandardMutation op : StandardMutation.values()) {
+            ops.put("mutation." + op, () -> {
+                Individual ind = evaluated.get(cursor[0]++ & (GENOMES - 1)).cloneIndividual();
+                op.mutate(ind, 0.05, r);
+                return ind.getFingerprint();
+            });
+        }
+        return ops;
+    }
+
+    // ============================================================
+    // QUẦN THỂ (tham số: file input, kích thước quần thể)
+    // ============================================================
+
+    /** Thao tác trên cả quần thể: chọn bố mẹ, đo đa dạng, sắp xếp */
+    public static Map<String, LongSupplier> populationOps(String input, int popSize) throws IOException {
+        Graph g = GraphLoader.load(Path.of(input), 1).getGraph();
+        SplittableRandom r = new SplittableRandom(7);
+        Population pop = new Population(g, popSize, r);
+        GeneticAlgorithm ga = new GeneticAlgorithm(g, popSize, 1, 0.05, 0.7, 2, 0, 0.0, 0.0, 1.0);
+        Map<String, LongSupplier> ops = new LinkedHashMap<>();
+
+        ops.put("prepareSelector", () -> ga.prepareSelector(pop.getIndividuals()).select(r).getFitness());
+        SelectionStrategy.Selector rank = new RankSelection().prepare(pop.getIndividuals(), null);
+        SelectionStrategy.Selector tournament = new TournamentSelection(2).prepare(pop.getIndividuals(), null);
+        ops.put("rankSelect", () -> rank.select(r).getFitness());
+        ops.put("tournamentSelect", () -> tournament.select(r).getFitness());
+        ops.put("diversity", () -> (long) (ga.computeDiversity(pop) * 1e6));
+        ops.put("meanHamming", () -> (long) (ga.computeMeanHamming(pop) * 1e6));
+
+        List<Individual> shuffled = new ArrayList<>(pop.getIndividuals());
+        ops.put("sortByFitness", () -> {
+            Collections.shuffle(shuffled);
+            return new Population(shuffled).getBest().getFitness();
+        });
+        return ops;
+    }
+
+    // ============================================================
+    // DỮ LIỆU
+    // ============================================================
+
+    private static long[] randomGenes(Graph g, SplittableRandom r) {
+        long[] genes = new long[g.wordCount()];
+        for (int i = 1; i <= g.size(); i++) {
+            if (r.nextDouble() > 0.5) BitWords.set(genes, i);
+        }
+        return genes;
+    }
+
+    /** Các cạnh u < v của g dạng cặp (u0 v0 u1 v1 ...) cho GraphBuilder.addEdgePairs */
+    private static int[] edgePairs(Graph g) {
+        int[] pairs = new int[(int) (2 * g.edgeCount())];
+        int size = 0;
+        for (int u = 1; u <= g.size(); u++) {
+            for (int v = g.nextNeighbor(u, u + 1); v >= 1; v = g.nextNeighbor(u, v + 1)) {
+                pairs[size++] = u;
+                pairs[size++] = v;
+            }
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,108 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Đường nóng trên Graph và Individual (đánh giá, repair, expand, index, clone, lai ghép / đột biến)
+ * trên từng file input, với cả 2 cài đặt Graph: DENSE (hàng kề bit) và SPARSE (CSR).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GraphBenchmark {
+
+    @Param({"input1.txt", "input2.txt", "input3.txt", "input4.txt", "input5.txt",
+            "input6.txt", "input7.txt", "input8.txt", "input9.txt", "input10.txt"})
+    public String input;
+
+    @Param({"DENSE", "SPARSE"})
+    public String representation;
+
+    private LongSupplier isEdge;
+    private LongSupplier build;
+    private LongSupplier clone;
+    private LongSupplier calculateFitness;
+    private LongSupplier repair;
+    private LongSupplier expandRandom;
+    private LongSupplier expandMaxCandidateDegree;
+    private LongSupplier index;
+    private LongSupplier crossoverAndEvaluate;
+
+    @Setup
+    public void setup() throws Exception {
+        Workloads w = Workloads.create("graphOps", input, representation);
+        isEdge = w.op("isEdge");
+        build = w.op("build");
+        clone = w.op("clone");
+        calculateFitness = w.op("calculateFitness");
+        repair = w.op("repair");
+        expandRandom = w.op("expand.RANDOM");
+        expandMaxCandidateDegree = w.op("expand.MAX_CANDIDATE_DEGREE");
+        index = w.op("index");
+        crossoverAndEvaluate = w.op("crossoverAndEvaluate");
+    }
+
+    @Benchmark
+    public long isEdge() {
+        return isEdge.getAsLong();
+    }
+
+    /** Dựng Graph từ danh sách cạnh (GraphBuilder, cài đặt theo representation) */
+    @Benchmark
+    public long build() {
+        return build.getAsLong();
+    }
+
+    @Benchmark
+    public long cloneIndividual() {
+        return clone.getAsLong();
+    }
+
+    /** repair + expand (RANDOM) + index trên bộ gen ngẫu nhiên 50% */
+    @Benchmark
+    public long calculateFitness() {
+        return calculateFitness.getAsLong();
+    }
+
+    @Benchmark
+    public long repairToClique() {
+        return repair.getAsLong();
+    }
+
+    @Benchmark
+    public long greedyExpandRandom() {
+        return expandRandom.getAsLong();
+    }
+
+    @Benchmark
+    public long greedyExpandMaxCandidateDegree() {
+        return expandMaxCandidateDegree.getAsLong();
+    }
+
+    @Benchmark
+    public long calculateIndex() {
+        return index.getAsLong();
+    }
+
+    /** Individual.crossover: lai ghép đơn điểm từng bit rồi đánh giá con */
+    @Benchmark
+    public long crossoverAndEvaluate() {
+        return crossoverAndEvaluate.getAsLong();
+    }
+}
@@ -0,0 +1,50 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Toán tử lai ghép / đột biến chọn được (StandardCrossover, StandardMutation), không tính fitness:
+ * so sánh bản từng bit với bản theo word / bước nhảy hình học trên từng file input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OperatorBenchmark {
+
+    @Param({"input1.txt", "input2.txt", "input3.txt", "input4.txt", "input5.txt",
+            "input6.txt", "input7.txt", "input8.txt", "input9.txt", "input10.txt"})
+    public String input;
+
+    /** Tên thao tác trong GaWorkloads.graphOps: crossover.&lt;StandardCrossover&gt; hoặc mutation.&lt;StandardMutation&gt; */
+    @Param({"crossover.PER_BIT_ONE_POINT", "crossover.ONE_POINT", "crossover.TWO_POINT", "crossover.UNIFORM",
+            "mutation.PER_BIT", "mutation.GEOMETRIC_SKIP"})
+    public String operator;
+
+    private LongSupplier op;
+
+    @Setup
+    public void setup() throws Exception {
+        op = Workloads.create("graphOps", input, "DENSE").op(operator);
+    }
+
+    @Benchmark
+    public long apply() {
+        return op.getAsLong();
+    }
+}
@@ -0,0 +1,84 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Thao tác trên cả quần thể (chọn bố mẹ, đo đa dạng, sắp xếp) theo file input và kích thước quần thể.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PopulationBenchmark {
+
+    @Param({"input1.txt", "input2.txt", "input3.txt", "input4.txt", "input5.txt",
+            "input6.txt", "input7.txt", "input8.txt", "input9.txt", "input10.txt"})
+    public String input;
+
+    @Param({"20", "200"})
+    public int popSize;
+
+    private LongSupplier prepareSelector;
+    private LongSupplier rankSelect;
+    private LongSupplier tournamentSelect;
+    private LongSupplier diversity;
+    private LongSupplier meanHamming;
+    private LongSupplier sortByFitness;
+
+    @Setup
+    public void setup() throws Exception {
+        Workloads w = Workloads.create("populationOps", input, popSize);
+        prepareSelector = w.op("prepareSelector");
+        rankSelect = w.op("rankSelect");
+        tournamentSelect = w.op("tournamentSelect");
+        diversity = w.op("diversity");
+        meanHamming = w.op("meanHamming");
+        sortByFitness = w.op("sortByFitness");
+    }
+
+    @Benchmark
+    public long prepareSelector() {
+        return prepareSelector.getAsLong();
+    }
+
+    @Benchmark
+    public long rankSelect() {
+        return rankSelect.getAsLong();
+    }
+
+    @Benchmark
+    public long tournamentSelect() {
+        return tournamentSelect.getAsLong();
+    }
+
+    @Benchmark
+    public long computeDiversity() {
+        return diversity.getAsLong();
+    }
+
+    @Benchmark
+    public long computeMeanHamming() {
+        return meanHamming.getAsLong();
+    }
+
+    /** Dựng Population (sắp xếp theo fitness) từ danh sách đã xáo trộn */
+    @Benchmark
+    public long sortByFitness() {
+        return sortByFitness.getAsLong();
+    }
+}
@@ -0,0 +1,42 @@
+package bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Cầu nối tới GaWorkloads (package mặc định, không import được): gọi hàm dựng thao tác bằng reflection
+ * 1 lần ở @Setup, sau đó benchmark chỉ gọi thẳng LongSupplier.
+ */
+final class Workloads {
+
+    private final Map<String, LongSupplier> ops;
+
+    private Workloads(Map<String, LongSupplier> ops) {
+        this.ops = ops;
+    }
+
+    /** Gọi GaWorkloads.factory(args...) (hàm public static trả về Map tên thao tác -> LongSupplier) */
+    @SuppressWarnings("unchecked")
+    static Workloads create(String factory, Object... args) throws Exception {
+        for (Method m : Class.forName("GaWorkloads").getMethods()) {
+            if (m.getName().equals(factory) && m.getParameterCount() == args.length) {
+                try {
+                    return new Workloads((Map<String, LongSupplier>) m.invoke(null, args));
+                } catch (InvocationTargetException e) {
+                    throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown workload factory: " + factory);
+    }
+
+    LongSupplier op(String name) {
+        LongSupplier op = ops.get(name);
+        if (op == null) {
+            throw new IllegalArgumentException("Unknown workload: " + name);
+        }
+        return op;
+    }
+}
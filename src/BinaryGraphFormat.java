@@ -0,0 +1,390 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Định dạng đồ thị nhị phân biên dịch sẵn (.gbin) để không phải phân tích file text mỗi lần chạy.
+ *
+ * Bố cục (little-endian):
+ *   [0..3]   magic "GCLQ"
+ *   [4..7]   version (= 1)
+ *   [8..11]  layout  (1 = hàng kề đóng gói như DenseGraph, 2 = CSR như SparseGraph)
+ *   [12..15] n
+ *   [16..23] m (số cạnh)
+ *   [24..31] content hash (64 bit) của ma trận kề
+ *   [32..]   layout 1: hàng kề của đỉnh 1..n, mỗi hàng wordsFor(n) long
+ *            layout 2: offsets[1..n+1] (n + 1 int) rồi danh sách kề adj (2m int)
+ *
+ * Content hash chỉ phụ thuộc vào n và tập cạnh (không phụ thuộc thứ tự cạnh trong file text),
+ * nên dùng được làm khóa ổn định để cache kết quả theo đồ thị.
+ *
+ * Nạp: map file chỉ-đọc rồi chép khối dữ liệu vào mảng trên heap của DenseGraph / SparseGraph — mỗi tiến trình
+ * có bản sao riêng (không chia sẻ bộ nhớ qua page cache); lợi ích là bỏ qua bước phân tích text, chỉ còn
+ * 1 lần chép tuần tự. Khối dữ liệu phải nhỏ hơn 2 GB (giới hạn của 1 buffer / mảng Java), lớn hơn thì ném IOException.
+ * Chuyển đổi từ file text: java BinaryGraphFormat input.txt output.gbin
+ *
+ * Mặc định chỉ kiểm tra rẻ, O(n): header, kích thước file, bit ngoài 1..n ở đầu/cuối hàng kề, offsets CSR
+ * không giảm và nằm trong mảng kề. load(path, true) kiểm tra thêm toàn bộ cấu trúc với chi phí O(n + m)
+ * (cộng O(n * wordsFor(n)) với hàng kề): không self-loop, đối xứng, đúng m cạnh, mỗi danh sách kề CSR tăng ngặt
+ * trong 1..n — rồi so content hash. Dùng chế độ này với file không do chính chương trình vừa ghi ra.
+ */
+public final class BinaryGraphFormat {
+
+    private static final int MAGIC = 0x514C4347; // "GCLQ" khi đọc little-endian
+    private static final int VERSION = 1;
+    static final int LAYOUT_DENSE_ROWS = 1;
+    static final int LAYOUT_CSR = 2;
+    private static final int HEADER_BYTES = 32;
+
+    private BinaryGraphFormat() {}
+
+    /** Thông tin phần đầu file, đọc được mà không cần nạp cả đồ thị */
+    public static final class Header {
+        private final int layout;
+        private final int n;
+        private final long m;
+        private final long contentHash;
+
+        Header(int layout, int n, long m, long contentHash) {
+            this.layout = layout;
+            this.n = n;
+            this.m = m;
+            this.contentHash = contentHash;
+        }
+
+        public int getLayout() { return layout; }
+        public int getVertexCount() { return n; }
+        public long getEdgeCount() { return m; }
+        public long getContentHash() { return contentHash; }
+        public String getContentHashHex() { return String.format("%016x", contentHash); }
+    }
+
+    // ============================================================
+    // GHI
+    // ============================================================
+
+    /** Ghi đồ thị; SparseGraph được ghi dạng CSR, các cài đặt khác dạng hàng kề đóng gói */
+    public static void write(Graph g, Path path) throws IOException {
+        int n = g.size();
+        int layout = (g instanceof SparseGraph) ? LAYOUT_CSR : LAYOUT_DENSE_ROWS;
+
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(layout).putInt(n)
+                    .putLong(g.edgeCount()).putLong(contentHash(g));
+            header.flip();
+            writeFully(ch, header);
+
+            if (layout == LAYOUT_CSR) {
+                SparseGraph sg = (SparseGraph) g;
+                writeInts(ch, sg.offsets(), 1, n + 1);
+                writeInts(ch, sg.adjacency(), 0, sg.offsets()[n + 1]);
+            } else {
+                writeDenseRows(ch, g);
+            }
+        }
+    }
+
+    private static void writeDenseRows(FileChannel ch, Graph g) throws IOException {
+        int n = g.size();
+        int words = g.wordCount();
+        long[] row = new long[words];
+        ByteBuffer out = ByteBuffer.allocate(Math.max(words * 8, 1 << 16)).order(ByteOrder.LITTLE_ENDIAN);
+        for (int v = 1; v <= n; v++) {
+            if (out.remaining() < words * 8) {
+                out.flip();
+                writeFully(ch, out);
+                out.clear();
+            }
+            g.copyNeighborhood(v, row);
+            out.asLongBuffer().put(row);
+            out.position(out.position() + words * 8);
+        }
+        out.flip();
+        writeFully(ch, out);
+    }
+
+    /** Chuyển file danh sách cạnh (định dạng input*.txt) sang .gbin, trả về header đã ghi */
+    public static Header convert(String textPath, Path binaryPath) throws IOException {
+        Graph g = GraphLoader.load(textPath).getGraph();
+        write(g, binaryPath);
+        return readHeader(binaryPath);
+    }
+
+    // ============================================================
+    // ĐỌC
+    // ============================================================
+
+    public static Header readHeader(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (ch.read(header) < 0) {
+                    throw new IOException("File .gbin bị cắt cụt: " + path);
+                }
+            }
+            header.flip();
+            return parseHeader(header, path);
+        }
+    }
+
+    public static Graph load(Path path) throws IOException {
+        return load(path, false);
+    }
+
+    /**
+     * Nạp đồ thị từ file .gbin bằng memory-map (dữ liệu được chép vào heap).
+     * verify = true: kiểm tra toàn bộ cấu trúc rồi tính lại content hash và so với header (phát hiện file hỏng);
+     * false: chỉ kiểm tra rẻ O(n) (xem javadoc lớp).
+     */
+    public static Graph load(Path path, boolean verify) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            checkBodySize(ch.size() - HEADER_BYTES);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.remaining() < HEADER_BYTES) {
+                throw new IOException("File .gbin bị cắt cụt: " + path);
+            }
+            Header h = parseHeader(buf.slice(0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN), path);
+            int n = h.n;
+            Graph g;
+            if (h.layout == LAYOUT_DENSE_ROWS) {
+                g = loadDenseRows(buf, n, h.m, ch.size(), verify);
+            } else if (h.layout == LAYOUT_CSR) {
+                g = loadCsr(buf, n, h.m, ch.size(), verify);
+            } else {
+                throw new IOException("Layout .gbin không hỗ trợ: " + h.layout);
+            }
+
+            if (verify && contentHash(g) != h.contentHash) {
+                throw new IOException("Content hash của .gbin không khớp (file hỏng?): " + path);
+            }
+            return g;
+        }
+    }
+
+    private static Graph loadDenseRows(MappedByteBuffer buf, int n, long m, long fileSize, boolean verify)
+            throws IOException {
+        int words = BitWords.wordsFor(n);
+        long expected = HEADER_BYTES + (long) n * words * 8;
+        if (fileSize != expected) {
+            throw new IOException("Kích thước .gbin không khớp header: " + fileSize + " != " + expected);
+        }
+
+        LongBuffer body = buf.slice(HEADER_BYTES, (int) (expected - HEADER_BYTES))
+                .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        long[][] rows = new long[n + 1][words];
+        for (int v = 1; v <= n; v++) {
+            body.get(rows[v]);
+        }
+        checkRowBounds(rows, n);
+        if (verify) {
+            validateDenseRows(rows, n, m);
+        }
+        return new DenseGraph(n, rows);
+    }
+
+    private static Graph loadCsr(MappedByteBuffer buf, int n, long m, long fileSize, boolean verify)
+            throws IOException {
+        if (m < 0) {
+            throw new IOException("Số cạnh trong .gbin không hợp lệ: " + m);
+        }
+        long expected = HEADER_BYTES + 4L * (n + 1) + 8L * m;
+        if (fileSize != expected) {
+            throw new IOException("Kích thước .gbin không khớp header: " + fileSize + " != " + expected);
+        }
+
+        IntBuffer body = buf.slice(HEADER_BYTES, (int) (expected - HEADER_BYTES))
+                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int[] offsets = new int[n + 2];
+        body.get(offsets, 1, n + 1);
+        int[] adj = new int[(int) (2 * m)];
+        body.get(adj);
+        checkOffsets(offsets, adj, n);
+        if (verify) {
+            validateCsr(offsets, adj, n);
+        }
+        return new SparseGraph(n, offsets, adj);
+    }
+
+    /** Cả file được map thành 1 buffer và khối dữ liệu chép vào 1 mảng Java nên phải nhỏ hơn 2 GB */
+    private static void checkBodySize(long bodyBytes) throws IOException {
+        if (bodyBytes > Integer.MAX_VALUE - 8) {
+            throw new IOException("File .gbin quá lớn để nạp (dữ liệu " + bodyBytes + " byte, tối đa ~2 GB)");
+        }
+    }
+
+    // ============================================================
+    // KIỂM TRA CẤU TRÚC
+    // ============================================================
+
+    /** Kiểm tra rẻ O(n): không bit 0 và không bit > n (word cuối) trong mọi hàng kề */
+    private static void checkRowBounds(long[][] rows, int n) throws IOException {
+        int words = BitWords.wordsFor(n);
+        int tailBits = (n + 1) & 63;
+        long tailMask = (tailBits == 0) ? -1L : (1L << tailBits) - 1;
+        for (int v = 1; v <= n; v++) {
+            long[] row = rows[v];
+            if ((row[0] & 1L) != 0 || (row[words - 1] & ~tailMask) != 0) {
+                throw new IOException("Hàng kề " + v + " trong .gbin có bit ngoài 1.." + n);
+            }
+        }
+    }
+
+    /** Kiểm tra rẻ O(n): offsets[1] = 0, không giảm, offsets[n + 1] = adj.length */
+    private static void checkOffsets(int[] offsets, int[] adj, int n) throws IOException {
+        if (offsets[1] != 0 || offsets[n + 1] != adj.length) {
+            throw new IOException("CSR offsets trong .gbin không khớp số cạnh");
+        }
+        for (int v = 1; v <= n; v++) {
+            if (offsets[v + 1] < offsets[v]) {
+                throw new IOException("CSR offsets trong .gbin giảm tại đỉnh " + v);
+            }
+        }
+    }
+
+    /**
+     * Hàng kề hợp lệ (sau checkRowBounds): không self-loop, đối xứng, tổng bậc = 2m.
+     * Đối xứng: với mỗi bit u > v của hàng v kiểm tra bit v của hàng u; mọi cặp trên đều đối xứng và
+     * tổng số bit = 2 * số cặp trên thì không còn bit dưới nào thiếu đối xứng.
+     */
+    private static void validateDenseRows(long[][] rows, int n, long m) throws IOException {
+        long bits = 0;
+        long upperPairs = 0;
+        for (int v = 1; v <= n; v++) {
+            long[] row = rows[v];
+            if (BitWords.get(row, v)) {
+                throw new IOException("Hàng kề " + v + " trong .gbin có self-loop");
+            }
+            bits += BitWords.cardinality(row);
+            for (int u = BitWords.nextSetBit(row, v + 1); u >= 1; u = BitWords.nextSetBit(row, u + 1)) {
+                if (!BitWords.get(rows[u], v)) {
+                    throw new IOException("Ma trận kề trong .gbin không đối xứng: " + v + " -> " + u);
+                }
+                upperPairs++;
+            }
+        }
+        if (bits != 2 * upperPairs) {
+            throw new IOException("Ma trận kề trong .gbin không đối xứng");
+        }
+        if (upperPairs != m) {
+            throw new IOException("Số cạnh trong .gbin không khớp header: " + upperPairs + " != " + m);
+        }
+    }
+
+    /**
+     * CSR hợp lệ (sau checkOffsets): mỗi danh sách kề tăng ngặt
+     * trong 1..n, không self-loop, đối xứng. Đối xứng kiểm tra trong O(n + m): duyệt v tăng dần, mỗi
+     * láng giềng u > v phải là phần tử kế tiếp (theo con trỏ next[u]) trong phần "nhỏ hơn u" của danh sách u;
+     * cuối cùng phần nhỏ hơn của mọi danh sách phải được tiêu thụ hết.
+     */
+    private static void validateCsr(int[] offsets, int[] adj, int n) throws IOException {
+        int[] next = new int[n + 2];
+        System.arraycopy(offsets, 0, next, 0, n + 2);
+        for (int v = 1; v <= n; v++) {
+            int prev = 0;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = adj[i];
+                if (u <= prev || u > n) {
+                    throw new IOException("Danh sách kề " + v + " trong .gbin không tăng ngặt trong 1.." + n);
+                }
+                if (u == v) {
+                    throw new IOException("Danh sách kề " + v + " trong .gbin có self-loop");
+                }
+                if (u > v) {
+                    if (next[u] >= offsets[u + 1] || adj[next[u]] != v) {
+                        throw new IOException("CSR trong .gbin không đối xứng: " + v + " -> " + u);
+                    }
+                    next[u]++;
+                }
+                prev = u;
+            }
+        }
+        for (int v = 1; v <= n; v++) {
+            if (next[v] < offsets[v + 1] && adj[next[v]] < v) {
+                throw new IOException("CSR trong .gbin không đối xứng tại đỉnh " + v);
+            }
+        }
+    }
+
+    // ============================================================
+    // CONTENT HASH
+    // ============================================================
+
+    /**
+     * Hash 64 bit của (n, danh sách kề tăng dần của đỉnh 1..n) — giống nhau cho mọi cách liệt kê
+     * cùng một tập cạnh và cho cả hai cài đặt DenseGraph / SparseGraph.
+     */
+    public static long contentHash(Graph g) {
+        long h = mix64(0x6A09E667F3BCC909L ^ g.size());
+        for (int v = 1; v <= g.size(); v++) {
+            h = mix64(h ^ (0x8000000000000000L | v)) + 0x9E3779B97F4A7C15L;
+            for (int u = g.nextNeighbor(v, 1); u >= 1; u = g.nextNeighbor(v, u + 1)) {
+                h = mix64(h ^ u) + 0x9E3779B97F4A7C15L;
+            }
+        }
+        return h;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // ============================================================
+    // HÀM HỖ TRỢ
+    // ============================================================
+
+    private static Header parseHeader(ByteBuffer header, Path path) throws IOException {
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Không phải file .gbin: " + path);
+        }
+        int version = header.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Phiên bản .gbin không hỗ trợ: " + version);
+        }
+        int n = header.getInt(12);
+        if (n <= 0) {
+            throw new IOException("Số đỉnh trong .gbin không hợp lệ: " + n);
+        }
+        return new Header(header.getInt(8), n, header.getLong(16), header.getLong(24));
+    }
+
+    private static void writeInts(FileChannel ch, int[] values, int from, int count) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = from; i < from + count; i++) {
+            if (!out.hasRemaining()) {
+                out.flip();
+                writeFully(ch, out);
+                out.clear();
+            }
+            out.putInt(values[i]);
+        }
+        out.flip();
+        writeFully(ch, out);
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Cách dùng: java BinaryGraphFormat <input.txt> <output.gbin>");
+            return;
+        }
+        Header h = convert(args[0], Path.of(args[1]));
+        System.out.println("Đã ghi " + args[1] + ": n=" + h.getVertexCount() + ", m=" + h.getEdgeCount()
+                + ", hash=" + h.getContentHashHex());
+    }
+}
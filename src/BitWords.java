@@ -0,0 +1,96 @@
+/**
+ * Các hàm tiện ích thao tác trên tập bit đóng gói trong mảng long[]
+ * (bit i nằm ở word i >>> 6, vị trí i & 63 — cùng quy ước với java.util.BitSet).
+ */
+public final class BitWords {
+
+    private BitWords() {}
+
+    /** Số word cần để chứa các bit 0..maxBit */
+    public static int wordsFor(int maxBit) {
+        return (maxBit >>> 6) + 1;
+    }
+
+    public static boolean get(long[] w, int i) {
+        return (w[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public static void set(long[] w, int i) {
+        w[i >>> 6] |= 1L << i;
+    }
+
+    public static void clear(long[] w, int i) {
+        w[i >>> 6] &= ~(1L << i);
+    }
+
+    public static void flip(long[] w, int i) {
+        w[i >>> 6] ^= 1L << i;
+    }
+
+    /** Bật các bit trong đoạn [from, to) */
+    public static void setRange(long[] w, int from, int to) {
+        for (int i = from; i < to; ) {
+            int wi = i >>> 6;
+            int end = Math.min(to, (wi + 1) << 6);
+            long mask = (-1L << i) & (-1L >>> (64 - (end - (wi << 6))));
+            w[wi] |= mask;
+            i = end;
+        }
+    }
+
+    /** out = b trên đoạn bit [from, to), a ở ngoài đoạn; a, b, out cùng độ dài (out có thể trùng a hoặc b) */
+    public static void blendRange(long[] a, long[] b, int from, int to, long[] out) {
+        for (int wi = 0; wi < out.length; wi++) {
+            int lo = wi << 6;
+            int start = Math.max(from, lo);
+            int end = Math.min(to, lo + 64);
+            long mask = (start < end) ? (-1L << start) & (-1L >>> (64 - (end - lo))) : 0L;
+            out[wi] = (a[wi] & ~mask) | (b[wi] & mask);
+        }
+    }
+
+    public static int cardinality(long[] w) {
+        int c = 0;
+        for (long x : w) {
+            c += Long.bitCount(x);
+        }
+        return c;
+    }
+
+    public static boolean isEmpty(long[] w) {
+        for (long x : w) {
+            if (x != 0) return false;
+        }
+        return true;
+    }
+
+    /** Trả về bit bật đầu tiên có chỉ số >= from, hoặc -1 nếu không còn */
+    public static int nextSetBit(long[] w, int from) {
+        int wi = from >>> 6;
+        if (wi >= w.length) return -1;
+        long word = w[wi] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (wi << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wi == w.length) return -1;
+            word = w[wi];
+        }
+    }
+
+    /** Trả về chỉ số của bit bật thứ rank (đếm từ 0), hoặc -1 nếu tập có ít hơn rank + 1 bit */
+    public static int selectSetBit(long[] w, int rank) {
+        for (int wi = 0; wi < w.length; wi++) {
+            long word = w[wi];
+            int c = Long.bitCount(word);
+            if (rank < c) {
+                for (int j = 0; j < rank; j++) {
+                    word &= word - 1;
+                }
+                return (wi << 6) + Long.numberOfTrailingZeros(word);
+            }
+            rank -= c;
+        }
+        return -1;
+    }
+}
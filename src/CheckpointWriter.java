@@ -0,0 +1,190 @@
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Ghi checkpoint của GA ra file nhị phân (little-endian) mà không chặn vòng lặp tiến hóa:
+ *  - luồng GA mã hóa trạng thái vào 1 trong 2 bộ đệm (double buffer) — chỉ chép bộ nhớ, không I/O, nhưng
+ *    tỉ lệ với kích thước trạng thái: với GA gồm cả quần thể, lịch sử và toàn bộ cache đánh giá (tới
+ *    evaluationCacheBytes, mặc định 32 MB), nên mỗi checkpoint có thể tốn vài chục ms trên luồng GA —
+ *    chọn nhịp checkpoint tương ứng,
+ *  - 1 luồng nền ghi bộ đệm đó ra file tạm, force() rồi đổi tên nguyên tử thành file đích,
+ *    nên file đích luôn là 1 snapshot hoàn chỉnh kể cả khi tiến trình chết giữa chừng.
+ * Nếu cả 2 bộ đệm đều đang được ghi (đĩa chậm hơn nhịp checkpoint) thì bỏ qua lần này thay vì chờ.
+ *
+ * Bố cục file (xem GeneticAlgorithm.writeCheckpoint):
+ *   [0..3] magic "GCKP", [4..7] version, sau đó là trạng thái GA.
+ */
+public final class CheckpointWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x504B4347; // "GCKP" khi đọc little-endian
+    static final int VERSION = 2;
+    private static final int INITIAL_BUFFER_BYTES = 1 << 16;
+
+    private final Path path;
+    private final Path tempPath;
+    private final ByteBuffer[] buffers = new ByteBuffer[2];
+    private final boolean[] busy = new boolean[2];
+    private final ExecutorService io;
+    private int written;
+    private int skipped;
+    private volatile IOException lastError;
+
+    public CheckpointWriter(Path path) {
+        this.path = path;
+        this.tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        this.io = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "checkpoint-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Mã hóa snapshot bằng encoder (trên luồng gọi, ghi từ sau magic + version) vào bộ đệm rảnh
+     * rồi giao cho luồng nền ghi ra file. Trả về false nếu không còn bộ đệm rảnh (bỏ qua lần này).
+     * encoder ném ngoại lệ (khác BufferOverflowException) thì bộ đệm được trả lại và ngoại lệ ném tiếp.
+     */
+    public boolean write(Consumer<ByteBuffer> encoder) {
+        int slot;
+        synchronized (busy) {
+            slot = !busy[0] ? 0 : !busy[1] ? 1 : -1;
+            if (slot < 0) {
+                skipped++;
+                return false;
+            }
+            busy[slot] = true;
+        }
+
+        ByteBuffer data;
+        try {
+            data = encode(buffers[slot], encoder);
+            buffers[slot] = data;
+        } catch (RuntimeException | Error e) {
+            synchronized (busy) {
+                busy[slot] = false;
+            }
+            throw e;
+        }
+
+        io.execute(() -> {
+            try {
+                writeFile(data);
+            } catch (IOException e) {
+                lastError = e;
+            } finally {
+                synchronized (busy) {
+                    busy[slot] = false;
+                }
+            }
+        });
+        synchronized (busy) {
+            written++;
+        }
+        return true;
+    }
+
+    /** Mã hóa vào buf (cấp mới / gấp đôi khi thiếu chỗ), trả về bộ đệm đã flip */
+    private static ByteBuffer encode(ByteBuffer buf, Consumer<ByteBuffer> encoder) {
+        if (buf == null) {
+            buf = newBuffer(INITIAL_BUFFER_BYTES);
+        }
+        while (true) {
+            try {
+                buf.clear();
+                buf.putInt(MAGIC).putInt(VERSION);
+                encoder.accept(buf);
+                break;
+            } catch (BufferOverflowException e) {
+                buf = newBuffer(buf.capacity() * 2);
+            }
+        }
+        buf.flip();
+        return buf;
+    }
+
+    private void writeFile(ByteBuffer data) throws IOException {
+        try (FileChannel ch = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (data.hasRemaining()) {
+                ch.write(data);
+            }
+            ch.force(true);
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Chờ các lần ghi đang dở xong rồi dừng luồng nền */
+    @Override
+    public void close() {
+        io.shutdown();
+        try {
+            io.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ============================================================
+    // ĐỌC
+    // ============================================================
+
+    /** Đọc cả file checkpoint, kiểm tra magic + version; buffer trả về đứng ngay sau phần đầu */
+    public static ByteBuffer read(Path path) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.remaining() < 8 || buf.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a GA checkpoint file: " + path);
+        }
+        int version = buf.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported checkpoint version " + version + ": " + path);
+        }
+        return buf;
+    }
+
+    // ====== HỖ TRỢ MÃ HÓA ======
+
+    static void putInts(ByteBuffer out, int[] values, int from, int to) {
+        out.putInt(to - from);
+        for (int i = from; i < to; i++) out.putInt(values[i]);
+    }
+
+    static int[] getInts(ByteBuffer in) {
+        int[] values = new int[in.getInt()];
+        for (int i = 0; i < values.length; i++) values[i] = in.getInt();
+        return values;
+    }
+
+    static void putLongs(ByteBuffer out, long[] values) {
+        out.putInt(values.length);
+        for (long v : values) out.putLong(v);
+    }
+
+    static long[] getLongs(ByteBuffer in) {
+        long[] values = new long[in.getInt()];
+        for (int i = 0; i < values.length; i++) values[i] = in.getLong();
+        return values;
+    }
+
+    private static ByteBuffer newBuffer(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // ====== GETTER ======
+
+    public Path getPath() { return path; }
+    public int getWritten() { synchronized (busy) { return written; } }
+    public int getSkipped() { synchronized (busy) { return skipped; } }
+    /** Lỗi ghi file gần nhất của luồng nền (null nếu chưa có) */
+    public IOException getLastError() { return lastError; }
+}
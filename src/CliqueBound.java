@@ -0,0 +1,132 @@
+import java.util.function.BooleanSupplier;
+
+/**
+ * Cận trên của số clique ω(G), tính 1 lần trước khi chạy GA:
+ *  - core number lớn nhất + 1 (degeneracy + 1),
+ *  - số màu của tô màu tham lam theo thứ tự smallest-last (luôn <= degeneracy + 1), O(n + m),
+ *  - số màu DSATUR (thường ít màu hơn), O(n² + m) — chỉ chạy khi n <= DSATUR_MAX_VERTICES.
+ * Mỗi lớp màu là tập độc lập nên clique có tối đa 1 đỉnh mỗi màu: ω(G) <= số màu.
+ */
+public final class CliqueBound {
+    /** DSATUR dùng bitset màu kề cho từng đỉnh (n · số màu bit) và chọn đỉnh bằng duyệt tuyến tính */
+    public static final int DSATUR_MAX_VERTICES = 5000;
+    /** Số bước DSATUR giữa 2 lần hỏi cờ dừng (lũy thừa của 2) */
+    private static final int STOP_CHECK_INTERVAL = 64;
+
+    private final int coreBound;
+    private final int greedyColours;
+    private final int dsaturColours;
+
+    private CliqueBound(int coreBound, int greedyColours, int dsaturColours) {
+        this.coreBound = coreBound;
+        this.greedyColours = greedyColours;
+        this.dsaturColours = dsaturColours;
+    }
+
+    public static CliqueBound compute(Graph graph) {
+        return compute(graph, () -> false);
+    }
+
+    /**
+     * Như compute(graph) nhưng DSATUR (phần O(n²)) dừng sớm khi stop trả về true — khi đó bỏ cận DSATUR
+     * (getDsaturColours() = -1), cận vẫn đúng nhờ degeneracy + 1 và số màu tham lam.
+     */
+    public static CliqueBound compute(Graph graph, BooleanSupplier stop) {
+        int n = graph.size();
+        if (n == 0) {
+            return new CliqueBound(0, 0, 0);
+        }
+        int[] core = new int[n + 1];
+        int[] removal = VertexOrdering.peel(graph, core);
+        int degeneracy = 0;
+        for (int v = 1; v <= n; v++) {
+            degeneracy = Math.max(degeneracy, core[v]);
+        }
+        int greedy = greedyColouring(graph, removal);
+        int dsatur = (n <= DSATUR_MAX_VERTICES) ? dsaturColouring(graph, stop) : -1;
+        return new CliqueBound(degeneracy + 1, greedy, dsatur);
+    }
+
+    // ====== TÔ MÀU ======
+
+    /** Tô màu tham lam theo thứ tự ngược lúc bóc (smallest-last), trả về số màu */
+    private static int greedyColouring(Graph graph, int[] removal) {
+        int n = graph.size();
+        int[] colour = new int[n + 1];
+        int[] usedStamp = new int[n + 2]; // usedStamp[c] == stamp: màu c đã có ở láng giềng
+        int colours = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int v = removal[i];
+            int stamp = n - i;
+            for (int u = graph.nextNeighbor(v, 1); u >= 1; u = graph.nextNeighbor(v, u + 1)) {
+                if (colour[u] > 0) {
+                    usedStamp[colour[u]] = stamp;
+                }
+            }
+            int c = 1;
+            while (usedStamp[c] == stamp) c++;
+            colour[v] = c;
+            colours = Math.max(colours, c);
+        }
+        return colours;
+    }
+
+    /**
+     * DSATUR: lần lượt tô đỉnh có nhiều màu kề khác nhau nhất (hòa: bậc lớn hơn), trả về số màu;
+     * -1 nếu stop trả về true (kiểm tra mỗi STOP_CHECK_INTERVAL bước).
+     */
+    private static int dsaturColouring(Graph graph, BooleanSupplier stop) {
+        int n = graph.size();
+        int[] colour = new int[n + 1];
+        int[] saturation = new int[n + 1];
+        long[][] adjacentColours = new long[n + 1][];
+        int colours = 0;
+        for (int step = 0; step < n; step++) {
+            if ((step & (STOP_CHECK_INTERVAL - 1)) == 0 && stop.getAsBoolean()) {
+                return -1;
+            }
+            int v = -1;
+            for (int u = 1; u <= n; u++) {
+                if (colour[u] == 0 && (v < 0 || saturation[u] > saturation[v]
+                        || (saturation[u] == saturation[v] && graph.degree(u) > graph.degree(v)))) {
+                    v = u;
+                }
+            }
+            long[] used = adjacentColours[v];
+            int c = 1;
+            while (used != null && (c >>> 6) < used.length && BitWords.get(used, c)) c++;
+            colour[v] = c;
+            colours = Math.max(colours, c);
+            adjacentColours[v] = null;
+
+            for (int u = graph.nextNeighbor(v, 1); u >= 1; u = graph.nextNeighbor(v, u + 1)) {
+                if (colour[u] != 0) continue;
+                long[] set = adjacentColours[u];
+                if (set == null || (c >>> 6) >= set.length) {
+                    long[] grown = new long[BitWords.wordsFor(Math.max(c, 63))];
+                    if (set != null) System.arraycopy(set, 0, grown, 0, set.length);
+                    adjacentColours[u] = grown;
+                    set = grown;
+                }
+                if (!BitWords.get(set, c)) {
+                    BitWords.set(set, c);
+                    saturation[u]++;
+                }
+            }
+        }
+        return colours;
+    }
+
+    // ====== GETTER ======
+
+    /** Cận trên tốt nhất: min(degeneracy + 1, số màu tham lam, số màu DSATUR) */
+    public int getUpperBound() {
+        int bound = Math.min(coreBound, greedyColours);
+        return (dsaturColours >= 0) ? Math.min(bound, dsaturColours) : bound;
+    }
+
+    public int getCoreBound() { return coreBound; }
+    public int getGreedyColours() { return greedyColours; }
+    /** Số màu DSATUR, -1 nếu bỏ qua vì đồ thị quá lớn hoặc bị dừng giữa chừng */
+    public int getDsaturColours() { return dsaturColours; }
+}
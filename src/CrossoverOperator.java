@@ -0,0 +1,9 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Toán tử lai ghép: tạo 1 con từ 2 bố mẹ, CHƯA tính fitness (GA tra cache / đánh giá sau).
+ * Cài đặt sẵn có trong StandardCrossover; chọn qua GeneticAlgorithm.setCrossoverOperator.
+ */
+public interface CrossoverOperator {
+    Individual crossover(Individual parent1, Individual parent2, RandomGenerator rand);
+}
@@ -0,0 +1,188 @@
+/**
+ * Đồ thị dày: mỗi đỉnh lưu một hàng kề đóng gói long[] (n²/8 byte), mọi thao tác tập đỉnh
+ * chạy 64 đỉnh / lệnh. Phù hợp khi n vừa phải hoặc đồ thị dày (xem GraphBuilder).
+ */
+public class DenseGraph implements Graph {
+    private final int n;
+    // Số word (64 bit) của mỗi hàng kề
+    private final int words;
+    // Hàng kề đóng gói: bit v của rows[u] bật <=> có cạnh (u, v); đỉnh chạy từ 1 đến n
+    private final long[][] rows;
+    private final int[] degree;
+
+    public DenseGraph(int n) {
+        if(n <= 0) {
+                throw new IllegalArgumentException("Number of vertices must be positive.");
+            }
+        this.n = n;
+        this.words = BitWords.wordsFor(n);
+        this.rows = new long[n + 1][words];
+        this.degree = new int[n + 1];
+    }
+
+    /**
+     * Tạo đồ thị từ các hàng kề đã đóng gói sẵn (rows[1..n], mỗi hàng wordCount() word, đối xứng,
+     * không có self-loop) — dùng khi nạp từ định dạng nhị phân. Bậc được tính lại bằng popcount.
+     */
+    DenseGraph(int n, long[][] rows) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Number of vertices must be positive.");
+        }
+        this.n = n;
+        this.words = BitWords.wordsFor(n);
+        if (rows.length != n + 1) {
+            throw new IllegalArgumentException("Expected " + (n + 1) + " adjacency rows, got " + rows.length);
+        }
+        this.rows = rows;
+        this.degree = new int[n + 1];
+        for (int v = 1; v <= n; v++) {
+            if (rows[v].length != words) {
+                throw new IllegalArgumentException("Adjacency row " + v + " must have " + words + " words");
+            }
+            degree[v] = BitWords.cardinality(rows[v]);
+        }
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int wordCount() {
+        return words;
+    }
+
+    @Override
+    public int degree(int v) {
+        checkVertex(v);
+        return degree[v];
+    }
+
+    @Override
+    public long edgeCount() {
+        long sum = 0;
+        for (int v = 1; v <= n; v++) {
+            sum += degree[v];
+        }
+        return sum / 2;
+    }
+
+    public void addEdge(int u, int v) {
+        // Sửa: đỉnh bắt đầu từ 1 đến n
+        if (u < 1 || u > n || v < 1 || v > n) {
+            throw new IllegalArgumentException("Vertex index out of bounds: " + u + ", " + v + " (valid: 1-" + n + ")");
+        }
+        if (u == v || BitWords.get(rows[u], v)) {
+            return;
+        }
+        BitWords.set(rows[u], v);
+        BitWords.set(rows[v], u);
+        degree[u]++;
+        degree[v]++;
+    }
+
+    @Override
+    public boolean isEdge(int u, int v) {
+        // Sửa: đỉnh bắt đầu từ 1 đến n
+        if (u < 1 || u > n || v < 1 || v > n) {
+            throw new IllegalArgumentException("Vertex index out of bounds: " + u + ", " + v + " (valid: 1-" + n + ")");
+        }
+        return BitWords.get(rows[u], v);
+    }
+
+    // ====== THAO TÁC THEO WORD (64 ĐỈNH / LẦN) ======
+
+    @Override
+    public void copyNeighborhood(int v, long[] out) {
+        System.arraycopy(rows[v], 0, out, 0, Math.min(out.length, words));
+        for (int i = words; i < out.length; i++) {
+            out[i] = 0L;
+        }
+    }
+
+    @Override
+    public void andNeighborhood(int v, long[] set, long[] out) {
+        long[] row = rows[v];
+        int len = Math.min(set.length, words);
+        for (int i = 0; i < len; i++) {
+            out[i] = set[i] & row[i];
+        }
+        for (int i = len; i < out.length; i++) {
+            out[i] = 0L;
+        }
+    }
+
+    @Override
+    public void retainNeighborhood(int v, long[] set) {
+        long[] row = rows[v];
+        int len = Math.min(set.length, words);
+        for (int i = 0; i < len; i++) {
+            set[i] &= row[i];
+        }
+        for (int i = len; i < set.length; i++) {
+            set[i] = 0L;
+        }
+    }
+
+    @Override
+    public int countCommonNeighbors(int v, long[] set) {
+        long[] row = rows[v];
+        int len = Math.min(set.length, words);
+        int c = 0;
+        for (int i = 0; i < len; i++) {
+            c += Long.bitCount(set[i] & row[i]);
+        }
+        return c;
+    }
+
+    @Override
+    public int listCommonNeighbors(int v, long[] set, int[] out) {
+        long[] row = rows[v];
+        int len = Math.min(set.length, words);
+        int c = 0;
+        for (int i = 0; i < len; i++) {
+            long common = set[i] & row[i];
+            while (common != 0) {
+                out[c++] = (i << 6) + Long.numberOfTrailingZeros(common);
+                common &= common - 1;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public boolean isSubsetOfNeighborhood(long[] set, int v) {
+        long[] row = rows[v];
+        int len = Math.min(set.length, words);
+        int vw = v >>> 6;
+        for (int i = 0; i < len; i++) {
+            long missing = set[i] & ~row[i];
+            if (i == vw) {
+                missing &= ~(1L << v);
+            }
+            if (missing != 0) {
+                return false;
+            }
+        }
+        for (int i = len; i < set.length; i++) {
+            if (set[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int nextNeighbor(int v, int from) {
+        int u = BitWords.nextSetBit(rows[v], Math.max(from, 1));
+        return (u > n) ? -1 : u;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 1 || v > n) {
+            throw new IllegalArgumentException("Vertex index out of bounds: " + v + " (valid: 1-" + n + ")");
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Đo độ đa dạng của quần thể mà không cấp phát trên đường nóng mỗi thế hệ:
+ *  - uniqueRatio: tỉ lệ bộ gen khác nhau, so sánh qua dấu vân tay 64 bit (fingerprint) của cá thể
+ *    trong một bảng băm long[] dùng lại giữa các thế hệ,
+ *  - meanHamming: khoảng cách Hamming trung bình giữa các cặp cá thể (popcount trên XOR các word),
+ *    chuẩn hóa về [0, 1] theo n; quần thể lớn thì lấy mẫu SAMPLE_PAIRS cặp.
+ *
+ * Fingerprint là băm Zobrist: XOR của zobrist(v) với mọi đỉnh v được chọn, nên lật 1 bit chỉ cần
+ * 1 phép XOR (Individual.mutate cập nhật tăng dần). Mỗi instance chỉ dùng trên 1 luồng.
+ */
+public final class Diversity {
+
+    /** Quần thể tối đa tính Hamming đủ mọi cặp (64 cá thể = 2016 cặp) */
+    static final int EXACT_HAMMING_MAX_POP = 64;
+    /** Số cặp lấy mẫu khi quần thể lớn hơn */
+    static final int SAMPLE_PAIRS = 2048;
+
+    private final int n;
+    private final long seed;
+    // Số lần đã lấy mẫu: lần thứ k dùng nguồn ngẫu nhiên suy ra từ (seed, k) => lưu / khôi phục được (checkpoint)
+    private long sampleCalls;
+    private long[] table = new long[0];
+    private boolean[] used = new boolean[0];
+
+    public Diversity(int n, long seed) {
+        this.n = Math.max(1, n);
+        this.seed = seed;
+    }
+
+    // ====== FINGERPRINT ======
+
+    /** Khóa Zobrist của đỉnh v (cố định, không phụ thuộc seed) */
+    static long zobrist(int v) {
+        long z = v * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Fingerprint của một bộ gen (XOR các khóa Zobrist của những bit đang bật) */
+    static long fingerprint(long[] words) {
+        long h = 0L;
+        for (int i = 0; i < words.length; i++) {
+            long w = words[i];
+            while (w != 0) {
+                h ^= zobrist((i << 6) + Long.numberOfTrailingZeros(w));
+                w &= w - 1;
+            }
+        }
+        return h;
+    }
+
+    // ====== TỈ LỆ BỘ GEN KHÁC NHAU ======
+
+    /** Số fingerprint khác nhau / kích thước quần thể */
+    public double uniqueRatio(List<Individual> inds) {
+        int size = inds.size();
+        if (size == 0) {
+            return 0.0;
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1; // lũy thừa 2, hệ số tải <= 0.5
+        if (table.length != capacity) {
+            table = new long[capacity];
+            used = new boolean[capacity];
+        } else {
+            Arrays.fill(used, false);
+        }
+
+        int mask = capacity - 1;
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            long fp = inds.get(i).getFingerprint();
+            int slot = (int) (fp ^ (fp >>> 32)) & mask;
+            while (used[slot] && table[slot] != fp) {
+                slot = (slot + 1) & mask;
+            }
+            if (!used[slot]) {
+                used[slot] = true;
+                table[slot] = fp;
+                unique++;
+            }
+        }
+        return (double) unique / size;
+    }
+
+    // ====== KHOẢNG CÁCH HAMMING TRUNG BÌNH ======
+
+    /**
+     * Khoảng cách Hamming trung bình giữa 2 cá thể khác slot, chia cho n.
+     * Tính đủ mọi cặp khi quần thể <= EXACT_HAMMING_MAX_POP, ngược lại lấy mẫu SAMPLE_PAIRS cặp.
+     */
+    public double meanHamming(List<Individual> inds) {
+        int size = inds.size();
+        if (size < 2) {
+            return 0.0;
+        }
+
+        long total = 0;
+        long pairs = 0;
+        if (size <= EXACT_HAMMING_MAX_POP) {
+            for (int i = 0; i < size; i++) {
+                long[] a = inds.get(i).getGeneWords();
+                for (int j = i + 1; j < size; j++) {
+                    total += hamming(a, inds.get(j).getGeneWords());
+                    pairs++;
+                }
+            }
+        } else {
+            SplittableRandom sampler = new SplittableRandom(seed + 0x9E3779B97F4A7C15L * ++sampleCalls);
+            for (int s = 0; s < SAMPLE_PAIRS; s++) {
+                int i = sampler.nextInt(size);
+                int j = sampler.nextInt(size - 1);
+                if (j >= i) j++;
+                total += hamming(inds.get(i).getGeneWords(), inds.get(j).getGeneWords());
+                pairs++;
+            }
+        }
+        return (double) total / pairs / n;
+    }
+
+    long getSampleCalls() {
+        return sampleCalls;
+    }
+
+    void setSampleCalls(long sampleCalls) {
+        this.sampleCalls = sampleCalls;
+    }
+
+    /** Số bit khác nhau giữa 2 bộ gen */
+    static int hamming(long[] a, long[] b) {
+        int len = Math.min(a.length, b.length);
+        int d = 0;
+        for (int i = 0; i < len; i++) {
+            d += Long.bitCount(a[i] ^ b[i]);
+        }
+        for (int i = len; i < a.length; i++) d += Long.bitCount(a[i]);
+        for (int i = len; i < b.length; i++) d += Long.bitCount(b[i]);
+        return d;
+    }
+}
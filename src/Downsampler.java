@@ -0,0 +1,101 @@
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Giảm số điểm của 1 chuỗi (x tăng dần) trước khi vẽ, để số điểm vẽ ~ số pixel chiều ngang:
+ *  - LTTB (Largest-Triangle-Three-Buckets): chia thành target - 2 xô, mỗi xô giữ điểm tạo tam giác lớn nhất
+ *    với điểm đã giữ ở xô trước và trung bình xô sau — giữ hình dáng đường, O(n),
+ *  - MIN_MAX: mỗi xô giữ điểm nhỏ nhất và lớn nhất (theo thứ tự x) — không bao giờ mất đỉnh / đáy, O(n).
+ * Điểm đầu và điểm cuối luôn được giữ. Kết quả là mảng chỉ số tăng dần vào chuỗi gốc (không chép dữ liệu);
+ * dữ liệu đọc qua hàm truy cập nên dùng thẳng được view của IntSeries / LongSeries.
+ */
+public final class Downsampler {
+
+    public enum Method { NONE, LTTB, MIN_MAX }
+
+    private Downsampler() {}
+
+    /** Chỉ số các điểm được giữ trong [0, count); count <= target hoặc NONE => giữ hết */
+    public static int[] select(double[] x, double[] y, int count, int target, Method method) {
+        if (count < 0 || count > x.length || count > y.length) {
+            throw new IllegalArgumentException("Invalid point count: " + count);
+        }
+        return select(i -> x[i], i -> y[i], count, target, method);
+    }
+
+    /** Như trên nhưng đọc điểm i qua x.applyAsDouble(i), y.applyAsDouble(i); target < 3 được coi là 3 */
+    public static int[] select(IntToDoubleFunction x, IntToDoubleFunction y, int count, int target, Method method) {
+        target = Math.max(3, target); // LTTB cần ít nhất điểm đầu, điểm cuối và 1 xô ở giữa
+        if (method == Method.NONE || count <= target) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) all[i] = i;
+            return all;
+        }
+        return (method == Method.LTTB) ? lttb(x, y, count, target) : minMax(y, count, target);
+    }
+
+    private static int[] lttb(IntToDoubleFunction x, IntToDoubleFunction y, int count, int target) {
+        int[] kept = new int[target];
+        int size = 0;
+        kept[size++] = 0;
+        double every = (double) (count - 2) / (target - 2);
+        int a = 0;
+        for (int b = 0; b < target - 2; b++) {
+            // Trung bình của xô kế tiếp (xô cuối: chính điểm cuối)
+            int avgFrom = (int) Math.floor((b + 1) * every) + 1;
+            int avgTo = Math.min((int) Math.floor((b + 2) * every) + 1, count);
+            double avgX = 0, avgY = 0;
+            for (int i = avgFrom; i < avgTo; i++) {
+                avgX += x.applyAsDouble(i);
+                avgY += y.applyAsDouble(i);
+            }
+            int avgCount = Math.max(1, avgTo - avgFrom);
+            avgX /= avgCount;
+            avgY /= avgCount;
+
+            int from = (int) Math.floor(b * every) + 1;
+            int to = (int) Math.floor((b + 1) * every) + 1;
+            double ax = x.applyAsDouble(a);
+            double ay = y.applyAsDouble(a);
+            double bestArea = -1;
+            int best = from;
+            for (int i = from; i < to; i++) {
+                // Gấp đôi diện tích tam giác (a, i, trung bình) — chỉ cần so sánh
+                double area = Math.abs((ax - avgX) * (y.applyAsDouble(i) - ay) - (ax - x.applyAsDouble(i)) * (avgY - ay));
+                if (area > bestArea) {
+                    bestArea = area;
+                    best = i;
+                }
+            }
+            kept[size++] = best;
+            a = best;
+        }
+        kept[size++] = count - 1;
+        return kept;
+    }
+
+    private static int[] minMax(IntToDoubleFunction y, int count, int target) {
+        // Mỗi xô cho tối đa 2 điểm => số xô = (target - 2) / 2
+        int buckets = Math.max(1, (target - 2) / 2);
+        int[] kept = new int[2 * buckets + 2];
+        int size = 0;
+        kept[size++] = 0;
+        double every = (double) (count - 2) / buckets;
+        for (int b = 0; b < buckets; b++) {
+            int from = (int) Math.floor(b * every) + 1;
+            int to = Math.min((int) Math.floor((b + 1) * every) + 1, count - 1);
+            if (from >= to) continue;
+            int lo = from, hi = from;
+            double loY = y.applyAsDouble(from), hiY = loY;
+            for (int i = from + 1; i < to; i++) {
+                double v = y.applyAsDouble(i);
+                if (v < loY) { lo = i; loY = v; }
+                if (v > hiY) { hi = i; hiY = v; }
+            }
+            kept[size++] = Math.min(lo, hi);
+            if (lo != hi) kept[size++] = Math.max(lo, hi);
+        }
+        kept[size++] = count - 1;
+        return Arrays.copyOf(kept, size);
+    }
+}
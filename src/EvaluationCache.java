@@ -0,0 +1,154 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bộ nhớ đệm kết quả đánh giá, khóa là fingerprint của bộ gen TRƯỚC khi sửa (xem Diversity).
+ * Mỗi mục lưu clique đã sửa + mở rộng (danh sách đỉnh), fitness và indexScore, nên lần gặp lại
+ * cùng bộ gen bỏ qua hoàn toàn repairToClique / greedyExpand.
+ *
+ * Loại bỏ theo LRU với giới hạn bộ nhớ ước lượng (maxBytes). Để kết quả GA không phụ thuộc số luồng:
+ *  - trong lúc sinh con, các luồng chỉ gọi lookup (chỉ đọc, an toàn đồng thời),
+ *  - sau mỗi thế hệ, GA gọi touch / put tuần tự theo thứ tự slot (put nhận bản chụp lấy ngay lúc đánh giá).
+ * Va chạm fingerprint 64 bit được bỏ qua (xác suất ~ số mục² / 2^64).
+ */
+public final class EvaluationCache {
+
+    /** Kết quả đánh giá đã lưu (bất biến) */
+    static final class Entry {
+        final int[] clique;
+        final int fitness;
+        final double indexScore;
+        final long fingerprint;
+
+        Entry(int[] clique, int fitness, double indexScore, long fingerprint) {
+            this.clique = clique;
+            this.fitness = fitness;
+            this.indexScore = indexScore;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    // Chi phí ước lượng của 1 mục ngoài mảng clique: node LinkedHashMap + khóa Long + Entry + header mảng
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Long, Entry> map = new LinkedHashMap<>(256);
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public EvaluationCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    // ====== ĐỌC (an toàn khi nhiều luồng cùng gọi, miễn là không có put/touch song song) ======
+
+    /** Mục ứng với khóa hoặc null; không thay đổi thứ tự LRU */
+    Entry lookup(long key) {
+        return map.get(key);
+    }
+
+    // ====== GHI (tuần tự, giữa các thế hệ) ======
+
+    /** Đánh dấu khóa vừa được dùng (đưa về cuối hàng đợi LRU) và đếm 1 lần trúng */
+    void touch(long key) {
+        hits++;
+        Entry e = map.remove(key);
+        if (e != null) {
+            map.put(key, e);
+        }
+    }
+
+    /** Chụp kết quả đánh giá hiện tại của cá thể (an toàn khi gọi song song) */
+    static Entry snapshot(Individual evaluated) {
+        return new Entry(cliqueOf(evaluated.getGeneWords(), evaluated.getFitness()),
+                evaluated.getFitness(), evaluated.getIndexScore(), evaluated.getFingerprint());
+    }
+
+    /**
+     * Lưu kết quả đánh giá dưới khóa trước-sửa, đồng thời dưới fingerprint của chính
+     * clique (clique tối đại đánh giá lại ra chính nó) — trúng cho con sao chép bố mẹ không đột biến.
+     */
+    void put(long key, Entry e) {
+        misses++;
+        insert(key, e);
+        if (e.fingerprint != key) {
+            insert(e.fingerprint, e);
+        }
+    }
+
+    /** Lưu cá thể đã đánh giá dưới fingerprint của chính nó (quần thể ban đầu), không tính là trượt */
+    void putEvaluated(Individual evaluated) {
+        insert(evaluated.getFingerprint(), snapshot(evaluated));
+    }
+
+    /** Chép kết quả đã lưu vào cá thể (ghi đè chuỗi gen) */
+    static void apply(Entry e, Individual target) {
+        target.setEvaluated(e.clique, e.fitness, e.indexScore, e.fingerprint);
+    }
+
+    private void insert(long key, Entry e) {
+        Entry old = map.remove(key);
+        if (old != null) {
+            usedBytes -= bytesOf(old);
+        }
+        map.put(key, e);
+        usedBytes += bytesOf(e);
+
+        Iterator<Map.Entry<Long, Entry>> it = map.entrySet().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            Map.Entry<Long, Entry> eldest = it.next();
+            if (eldest.getKey() == key) {
+                break; // luôn giữ mục vừa thêm
+            }
+            usedBytes -= bytesOf(eldest.getValue());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    // ====== CHECKPOINT ======
+
+    /** Các mục theo thứ tự LRU (cũ nhất trước); chỉ đọc, không gọi song song với touch / put */
+    Iterable<Map.Entry<Long, Entry>> entries() {
+        return map.entrySet();
+    }
+
+    /** Thêm lại 1 mục từ checkpoint (theo thứ tự LRU cũ), không tính trúng / trượt */
+    void restore(long key, Entry e) {
+        insert(key, e);
+    }
+
+    void restoreCounters(long hits, long misses, long evictions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    private static long bytesOf(Entry e) {
+        return ENTRY_OVERHEAD_BYTES + 4L * e.clique.length;
+    }
+
+    private static int[] cliqueOf(long[] genes, int size) {
+        int[] out = new int[size];
+        int c = 0;
+        for (int v = BitWords.nextSetBit(genes, 1); v >= 1 && c < size; v = BitWords.nextSetBit(genes, v + 1)) {
+            out[c++] = v;
+        }
+        return out;
+    }
+
+    // ====== GETTER ======
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public int size() { return map.size(); }
+    public long getUsedBytes() { return usedBytes; }
+    public long getMaxBytes() { return maxBytes; }
+}
@@ -0,0 +1,316 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Bộ giải chính xác bài toán clique lớn nhất kiểu BBMC / MCS (nhánh cận trên tập ứng viên dạng bitset),
+ * dùng cho đồ thị tới vài nghìn đỉnh: lấy đáp án tối ưu và để đánh giá chất lượng GA.
+ *
+ *  - Tiền xử lý: bóc lõi (Batagelj–Zaversnik), clique tham lam làm cận dưới, bỏ các đỉnh có
+ *    core number quá nhỏ rồi đánh số lại theo thứ tự degeneracy (lõi sâu nhất nhận chỉ số nhỏ nhất).
+ *  - Mỗi nút: tô màu tham lam tập ứng viên P theo thứ tự chỉ số (mỗi lớp màu là tập độc lập),
+ *    số màu là cận trên của clique trong P; chỉ nhánh trên các đỉnh có màu đủ lớn (cắt tỉa BBMC).
+ *  - Giới hạn thời gian: hết giờ thì dừng và trả về clique tốt nhất đã tìm (isOptimal() = false).
+ *  - threads > 1: chia các nhánh ở mức gốc ra ForkJoinPool, cận dưới dùng chung giữa các luồng
+ *    (kích thước kết quả không đổi, còn clique cụ thể có thể khác khi có nhiều clique tối ưu).
+ */
+public final class ExactCliqueSolver {
+    // Số nút giữa 2 lần kiểm tra hết giờ
+    private static final int DEADLINE_CHECK_MASK = 4095;
+
+    private final Graph graph;
+    private long timeLimitMillis = 0;   // 0 = không giới hạn
+    private int threads = 1;
+
+    // Trạng thái của lần giải gần nhất
+    private Graph ordered;
+    private int[] newToOld;
+    private final AtomicInteger bestSize = new AtomicInteger();
+    private long[] bestClique;          // theo chỉ số của ordered
+    private volatile boolean timedOut;
+    private long deadlineNanos;
+    private final LongAdder nodes = new LongAdder();
+    private boolean optimal;
+    private double executionTime;
+
+    public ExactCliqueSolver(Graph graph) {
+        this.graph = graph;
+    }
+
+    /** Giới hạn thời gian giải (mili giây), 0 hoặc giá trị quá lớn (vd Long.MAX_VALUE) = không giới hạn */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = Math.max(0, timeLimitMillis);
+    }
+
+    /** Số luồng chia các nhánh ở mức gốc (1 = tuần tự trên luồng gọi solve()) */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    // ============================================================
+    // GIẢI
+    // ============================================================
+
+    /** Clique lớn nhất (hoặc tốt nhất tìm được trước khi hết giờ) theo chỉ số của graph */
+    public Individual solve() {
+        long start = System.nanoTime();
+        deadlineNanos = (timeLimitMillis > 0) ? deadlineAfter(start, timeLimitMillis) : Long.MAX_VALUE;
+        timedOut = false;
+        nodes.reset();
+
+        prepare();
+        if (ordered != null) {
+            if (threads > 1) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    searchRoot(pool);
+                } finally {
+                    pool.shutdown();
+                }
+            } else {
+                searchRoot(null);
+            }
+        }
+        optimal = !timedOut;
+        executionTime = (System.nanoTime() - start) / 1e9;
+
+        long[] genes = new long[graph.wordCount()];
+        if (bestClique != null) {
+            for (int v = BitWords.nextSetBit(bestClique, 1); v >= 1; v = BitWords.nextSetBit(bestClique, v + 1)) {
+                BitWords.set(genes, newToOld[v]);
+            }
+        }
+        return Individual.ofClique(graph, genes);
+    }
+
+    /** Bóc lõi, lấy cận dưới tham lam, giữ các đỉnh có core number >= cận dưới và đánh số lại */
+    private void prepare() {
+        int n = graph.size();
+        ordered = null;
+        bestClique = null;
+        bestSize.set(0);
+        if (n == 0) {
+            return;
+        }
+        int[] core = new int[n + 1];
+        int[] removal = VertexOrdering.peel(graph, core);
+
+        // Clique tham lam theo thứ tự ngược lúc bóc (đỉnh lõi sâu trước)
+        long[] greedy = new long[graph.wordCount()];
+        int greedySize = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int v = removal[i];
+            if (graph.isSubsetOfNeighborhood(greedy, v)) {
+                BitWords.set(greedy, v);
+                greedySize++;
+            }
+        }
+
+        // Clique lớn hơn greedySize chỉ chứa đỉnh có core number >= greedySize; giữ thêm mức
+        // greedySize - 1 để chính clique tham lam (mỗi đỉnh có core >= greedySize - 1) vẫn nằm trong đồ thị
+        int minCore = greedySize - 1;
+        int kept = 0;
+        for (int v = 1; v <= n; v++) {
+            if (core[v] >= minCore) kept++;
+        }
+        newToOld = new int[kept + 1];
+        int[] oldToNew = new int[n + 1];
+        int next = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int v = removal[i];
+            if (core[v] >= minCore) {
+                newToOld[++next] = v;
+                oldToNew[v] = next;
+            }
+        }
+        ordered = GraphBuilder.relabel(graph, newToOld, oldToNew);
+        bestClique = new long[ordered.wordCount()];
+        for (int v = BitWords.nextSetBit(greedy, 1); v >= 1; v = BitWords.nextSetBit(greedy, v + 1)) {
+            BitWords.set(bestClique, oldToNew[v]);
+        }
+        bestSize.set(greedySize);
+    }
+
+    /** Mức gốc: tô màu toàn bộ đỉnh rồi duyệt các nhánh (tuần tự, hoặc chia ra pool) */
+    private void searchRoot(ForkJoinPool pool) {
+        int m = ordered.size();
+        long[] all = new long[ordered.wordCount()];
+        BitWords.setRange(all, 1, m + 1);
+        Worker root = new Worker();
+        int[] order = new int[m];
+        int[] colour = new int[m];
+        int count = root.colourSort(all, 0, order, colour);
+
+        if (pool == null) {
+            root.branch(all, 0, order, colour, count);
+            root.flushNodes();
+            return;
+        }
+        // Nhánh i (giống tuần tự): P = tất cả \ {order[j] : j > i}. Các luồng lần lượt nhận nhánh tiếp theo
+        // từ màu lớn nhất xuống (nhánh đầu thường nặng nhất, chia tĩnh theo khối sẽ lệch tải)
+        AtomicInteger nextBranch = new AtomicInteger(count - 1);
+        pool.submit(() -> IntStream.range(0, threads).parallel().forEach(t -> {
+            Worker w = new Worker();
+            long[] p = new long[all.length];
+            for (int i = nextBranch.getAndDecrement(); i >= 0; i = nextBranch.getAndDecrement()) {
+                if (timedOut || 1 + colour[i] <= bestSize.get()) {
+                    break;
+                }
+                System.arraycopy(all, 0, p, 0, all.length);
+                for (int k = i + 1; k < count; k++) {
+                    BitWords.clear(p, order[k]);
+                }
+                w.expandFrom(order[i], p);
+            }
+            w.flushNodes();
+        })).join();
+    }
+
+    /** Ghi nhận clique mới nếu lớn hơn best hiện tại */
+    private synchronized void offer(int[] clique, int size) {
+        if (size <= bestSize.get()) {
+            return;
+        }
+        long[] genes = new long[ordered.wordCount()];
+        for (int i = 0; i < size; i++) {
+            BitWords.set(genes, clique[i]);
+        }
+        bestClique = genes;
+        bestSize.set(size);
+    }
+
+    /** Bộ nhớ tạm của 1 luồng tìm kiếm (bitset P, danh sách tô màu theo từng độ sâu) */
+    private final class Worker {
+        private final int words = ordered.wordCount();
+        private final int[] clique = new int[ordered.size() + 1];
+        private final long[] uncoloured = new long[words];
+        private final long[] colourClass = new long[words];
+        private final long[] neighbors = new long[words];
+        private long[][] levelP = new long[0][];
+        private int[][] levelOrder = new int[0][];
+        private int[][] levelColour = new int[0][];
+        private long localNodes;
+
+        /** Nhánh mức gốc với đỉnh v và tập ứng viên p (trước khi giao với N(v)) */
+        void expandFrom(int v, long[] p) {
+            clique[0] = v;
+            long[] next = level(1);
+            ordered.andNeighborhood(v, p, next);
+            if (BitWords.isEmpty(next)) {
+                offer(clique, 1);
+            } else {
+                expand(next, 1);
+            }
+        }
+
+        /** Tìm trong tập ứng viên p (đã giao với láng giềng của clique[0..depth)) */
+        private void expand(long[] p, int depth) {
+            if ((++localNodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadlineNanos) {
+                timedOut = true;
+            }
+            if (timedOut) {
+                return;
+            }
+            int[] order = levelOrder[depth];
+            int[] colour = levelColour[depth];
+            int count = colourSort(p, depth, order, colour);
+            branch(p, depth, order, colour, count);
+        }
+
+        /** Duyệt các đỉnh đã tô màu từ màu lớn nhất; p bị thu hẹp dần (bỏ đỉnh đã duyệt) */
+        void branch(long[] p, int depth, int[] order, int[] colour, int count) {
+            for (int i = count - 1; i >= 0; i--) {
+                if (timedOut || depth + colour[i] <= bestSize.get()) {
+                    return;
+                }
+                int v = order[i];
+                clique[depth] = v;
+                long[] next = level(depth + 1);
+                ordered.andNeighborhood(v, p, next);
+                if (BitWords.isEmpty(next)) {
+                    offer(clique, depth + 1);
+                } else {
+                    expand(next, depth + 1);
+                }
+                BitWords.clear(p, v);
+            }
+        }
+
+        /**
+         * Tô màu tham lam p theo thứ tự chỉ số. Chỉ ghi (theo màu tăng dần) các đỉnh có màu
+         * > best - depth: đỉnh màu nhỏ hơn không thể dẫn tới clique lớn hơn best nên không cần nhánh.
+         */
+        int colourSort(long[] p, int depth, int[] order, int[] colour) {
+            int minColour = bestSize.get() - depth;
+            System.arraycopy(p, 0, uncoloured, 0, words);
+            int count = 0;
+            int k = 0;
+            while (!BitWords.isEmpty(uncoloured)) {
+                k++;
+                System.arraycopy(uncoloured, 0, colourClass, 0, words);
+                for (int v = BitWords.nextSetBit(colourClass, 1); v >= 1; v = BitWords.nextSetBit(colourClass, v + 1)) {
+                    BitWords.clear(uncoloured, v);
+                    ordered.copyNeighborhood(v, neighbors);
+                    for (int w = 0; w < words; w++) {
+                        colourClass[w] &= ~neighbors[w];
+                    }
+                    if (k > minColour) {
+                        order[count] = v;
+                        colour[count] = k;
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        /** Bitset P của độ sâu depth (cấp phát lần đầu cần) kèm mảng tô màu cùng độ sâu */
+        private long[] level(int depth) {
+            if (depth >= levelP.length) {
+                int size = Math.max(depth + 1, 2 * levelP.length);
+                long[][] p = new long[size][];
+                int[][] o = new int[size][];
+                int[][] c = new int[size][];
+                System.arraycopy(levelP, 0, p, 0, levelP.length);
+                System.arraycopy(levelOrder, 0, o, 0, levelOrder.length);
+                System.arraycopy(levelColour, 0, c, 0, levelColour.length);
+                levelP = p;
+                levelOrder = o;
+                levelColour = c;
+            }
+            if (levelP[depth] == null) {
+                levelP[depth] = new long[words];
+                levelOrder[depth] = new int[ordered.size()];
+                levelColour[depth] = new int[ordered.size()];
+            }
+            return levelP[depth];
+        }
+
+        void flushNodes() {
+            nodes.add(localNodes);
+            localNodes = 0;
+        }
+    }
+
+    /** start + limitMillis (đổi ra ns), bão hòa ở Long.MAX_VALUE thay vì tràn số thành mốc trong quá khứ */
+    private static long deadlineAfter(long startNanos, long limitMillis) {
+        if (limitMillis >= Long.MAX_VALUE / 1_000_000L) {
+            return Long.MAX_VALUE;
+        }
+        long limitNanos = limitMillis * 1_000_000L;
+        return (startNanos > Long.MAX_VALUE - limitNanos) ? Long.MAX_VALUE : startNanos + limitNanos;
+    }
+
+    // ============================================================
+    // GETTER
+    // ============================================================
+
+    /** true nếu lần giải gần nhất duyệt hết cây tìm kiếm (kết quả là tối ưu) */
+    public boolean isOptimal() { return optimal; }
+    /** Số nút đã duyệt trong lần giải gần nhất */
+    public long getNodeCount() { return nodes.sum(); }
+    public double getExecutionTime() { return executionTime; }
+    public long getTimeLimitMillis() { return timeLimitMillis; }
+    public int getThreads() { return threads; }
+}
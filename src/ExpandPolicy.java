@@ -0,0 +1,9 @@
+/**
+ * Chiến lược chọn đỉnh khi mở rộng clique tham lam (Individual.greedyExpand).
+ */
+public enum ExpandPolicy {
+    /** Chọn ngẫu nhiên đều một đỉnh trong tập ứng viên (tương đương trộn ngẫu nhiên rồi thử lần lượt) */
+    RANDOM,
+    /** Chọn đỉnh có nhiều láng giềng nhất trong tập ứng viên (giữ lại nhiều ứng viên nhất cho bước sau) */
+    MAX_CANDIDATE_DEGREE
+}
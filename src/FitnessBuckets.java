@@ -0,0 +1,126 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Quần thể cho chế độ steady-state: cá thể được chia vào các "xô" theo fitness (số nguyên 0..n),
+ * nên thêm / lấy cá thể kém nhất / tốt nhất đều O(1) (trừ khi xô đầu mút rỗng phải dịch con trỏ),
+ * không cần sắp xếp lại cả quần thể sau mỗi lần thay thế.
+ *
+ * sortedView() là danh sách chỉ đọc theo fitness giảm dần (trong cùng xô: theo thứ tự thêm vào),
+ * get(i) tốn O(số mức fitness khác nhau) — đủ nhanh cho SelectionStrategy vì số mức thường rất nhỏ.
+ * Không an toàn đa luồng khi đang sửa; đọc đồng thời thì được.
+ */
+public final class FitnessBuckets {
+    private final List<List<Individual>> buckets;
+    private int size;
+    // Fitness lớn nhất / nhỏ nhất hiện có (chỉ hợp lệ khi size > 0)
+    private int maxFitness = -1;
+    private int minFitness = Integer.MAX_VALUE;
+
+    private final List<Individual> view = new AbstractList<>() {
+        @Override
+        public Individual get(int index) {
+            return getByRank(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    /** maxFitness: giới hạn trên của fitness (số đỉnh của đồ thị) */
+    public FitnessBuckets(int maxFitness) {
+        if (maxFitness < 0) {
+            throw new IllegalArgumentException("maxFitness must be non-negative: " + maxFitness);
+        }
+        buckets = new ArrayList<>(maxFitness + 1);
+        for (int f = 0; f <= maxFitness; f++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    public void add(Individual ind) {
+        int f = ind.getFitness();
+        if (f < 0 || f >= buckets.size()) {
+            throw new IllegalArgumentException("Fitness out of range: " + f);
+        }
+        buckets.get(f).add(ind);
+        size++;
+        if (f > maxFitness) maxFitness = f;
+        if (f < minFitness) minFitness = f;
+    }
+
+    public void addAll(List<Individual> inds) {
+        for (Individual ind : inds) {
+            add(ind);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Individual getBest() {
+        checkNotEmpty();
+        return buckets.get(maxFitness).get(0);
+    }
+
+    public Individual getWorst() {
+        checkNotEmpty();
+        List<Individual> b = buckets.get(minFitness);
+        return b.get(b.size() - 1);
+    }
+
+    /** Xóa và trả về cá thể kém nhất (trong xô fitness nhỏ nhất, cá thể thêm vào sau cùng) */
+    public Individual removeWorst() {
+        checkNotEmpty();
+        List<Individual> b = buckets.get(minFitness);
+        Individual worst = b.remove(b.size() - 1);
+        size--;
+        if (size == 0) {
+            maxFitness = -1;
+            minFitness = Integer.MAX_VALUE;
+        } else {
+            while (buckets.get(minFitness).isEmpty()) minFitness++;
+        }
+        return worst;
+    }
+
+    /** Cá thể có hạng rank (0 = tốt nhất) theo fitness giảm dần */
+    public Individual getByRank(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " out of bounds for size " + size);
+        }
+        for (int f = maxFitness; ; f--) {
+            List<Individual> b = buckets.get(f);
+            if (rank < b.size()) {
+                return b.get(rank);
+            }
+            rank -= b.size();
+        }
+    }
+
+    /** Danh sách chỉ đọc theo fitness giảm dần, phản ánh trạng thái hiện tại (không sao chép) */
+    public List<Individual> sortedView() {
+        return view;
+    }
+
+    /** Ghi toàn bộ cá thể theo fitness giảm dần vào out (đã xóa trước), O(size + số mức fitness) */
+    public void copySortedTo(List<Individual> out) {
+        out.clear();
+        if (size == 0) {
+            return;
+        }
+        for (int f = maxFitness; f >= minFitness; f--) {
+            out.addAll(buckets.get(f));
+        }
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("Population is empty");
+        }
+    }
+}
@@ -0,0 +1,311 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Số liệu hiệu năng của vòng lặp GA: thời gian từng pha (nano giây, histogram LatencyHistogram)
+ * và các bộ đếm (số lần quét hàng kề, số đỉnh repair xóa, expand thêm, cache trúng / trượt...).
+ *
+ * Mỗi luồng ghi vào Recorder riêng (ThreadLocal) nên không có tranh chấp; snapshot() gộp tất cả.
+ * Recorder của luồng đã kết thúc (ví dụ worker của ForkJoinPool mà GA tạo mỗi lần chạy) được gộp vào
+ * 1 Recorder chung rồi bỏ đi, nên dùng lại 1 GaMetrics qua nhiều lần chạy không làm bộ nhớ tăng dần.
+ * Gắn vào GA bằng setMetrics(...); không gắn (mặc định) thì GA chỉ tốn 1 phép so sánh null mỗi chỗ đo.
+ * Khi đang ghi JFR, mỗi thế hệ còn phát 1 sự kiện "TTCSN.GaGeneration" (xem GenerationEvent).
+ */
+public final class GaMetrics {
+
+    /** Các pha được đo (pha của từng con: SELECTION..LOCAL_SEARCH; còn lại: mỗi thế hệ 1 lần) */
+    public enum Phase {
+        SELECTION,      // dựng bộ chọn mỗi thế hệ + chọn 2 bố mẹ mỗi con
+        CROSSOVER,
+        MUTATION,
+        REPAIR,         // repairToClique
+        EXPANSION,      // greedyExpand
+        INDEX,          // calculateIndex + fingerprint
+        LOCAL_SEARCH,
+        CACHE_COMMIT,
+        SORT,           // cập nhật + sắp xếp quần thể (steady-state: chèn con vào các xô)
+        DIVERSITY,      // uniqueRatio + meanHamming
+        REDUCTION,      // rút gọn k-core
+        LOG,            // gọi các GenerationListener
+        CHECKPOINT,     // mã hóa snapshot (phần trên luồng GA)
+        GENERATION      // cả thế hệ
+    }
+
+    public enum Counter {
+        CHILDREN,
+        EVALUATIONS,          // số lần repair + expand thật sự (không tính cache trúng)
+        EDGE_PROBES,          // số lần quét 1 hàng kề trong repair / expand / index
+        REPAIR_REMOVALS,
+        EXPANSION_ADDITIONS,
+        CACHE_HITS,
+        CACHE_MISSES
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final Counter[] COUNTERS = Counter.values();
+
+    // Recorder của các luồng còn sống + phần đã gộp của luồng đã kết thúc; truy cập dưới khóa this
+    private final List<Recorder> recorders = new ArrayList<>();
+    private final Recorder retired = new Recorder(null);
+    private final ThreadLocal<Recorder> local = ThreadLocal.withInitial(this::newRecorder);
+
+    private synchronized Recorder newRecorder() {
+        retireFinishedThreads();
+        Recorder r = new Recorder(Thread.currentThread());
+        recorders.add(r);
+        return r;
+    }
+
+    /**
+     * Gộp Recorder của các luồng đã kết thúc vào retired rồi bỏ khỏi danh sách. An toàn dù không khóa phía ghi:
+     * luồng đã kết thúc không ghi nữa và isAlive() == false bảo đảm mọi lần ghi của nó đã nhìn thấy được.
+     */
+    private void retireFinishedThreads() {
+        for (Iterator<Recorder> it = recorders.iterator(); it.hasNext(); ) {
+            Recorder r = it.next();
+            if (!r.owner.isAlive()) {
+                retired.addAll(r);
+                it.remove();
+            }
+        }
+    }
+
+    /** Recorder của luồng hiện tại */
+    Recorder recorder() {
+        return local.get();
+    }
+
+    /**
+     * Bộ ghi của 1 luồng: chỉ luồng sở hữu được ghi, không đồng bộ.
+     * Mẫu dùng: t = System.nanoTime(); ...; t = rec.lap(Phase.X, t); ...; t = rec.lap(Phase.Y, t);
+     */
+    static final class Recorder {
+        private final Thread owner;
+        private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+        private final long[] counters = new long[COUNTERS.length];
+
+        private Recorder(Thread owner) {
+            this.owner = owner;
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+
+        private void addAll(Recorder other) {
+            for (int i = 0; i < phases.length; i++) phases[i].add(other.phases[i]);
+            for (int i = 0; i < counters.length; i++) counters[i] += other.counters[i];
+        }
+
+        private void clear() {
+            for (LatencyHistogram h : phases) h.reset();
+            Arrays.fill(counters, 0L);
+        }
+
+        void record(Phase phase, long nanos) {
+            phases[phase.ordinal()].record(nanos);
+        }
+
+        /** Ghi thời gian từ startNanos đến bây giờ vào phase, trả về thời điểm bây giờ */
+        long lap(Phase phase, long startNanos) {
+            long now = System.nanoTime();
+            phases[phase.ordinal()].record(now - startNanos);
+            return now;
+        }
+
+        void add(Counter counter, long delta) {
+            counters[counter.ordinal()] += delta;
+        }
+    }
+
+    // ============================================================
+    // SỰ KIỆN JFR
+    // ============================================================
+
+    /**
+     * Sự kiện JFR cho 1 thế hệ: thời lượng là cả thế hệ, các trường pha / bộ đếm là phần tăng
+     * trong thế hệ đó (gộp mọi luồng ghi vào GaMetrics này — khi nhiều GA, ví dụ các đảo của IslandModel,
+     * dùng chung 1 GaMetrics thì gồm cả phần của GA khác trong cùng khoảng thời gian).
+     * Bật bằng -XX:StartFlightRecording hoặc JMC.
+     */
+    @Name("TTCSN.GaGeneration")
+    @Label("GA Generation")
+    @Category("Genetic Algorithm")
+    @Description("Một thế hệ GA: thời gian từng pha và các bộ đếm")
+    @StackTrace(false)
+    static final class GenerationEvent extends Event {
+        @Label("Generation") int generation;
+        @Label("Best Fitness") int bestFitness;
+        @Label("Selection") @Timespan long selection;
+        @Label("Crossover") @Timespan long crossover;
+        @Label("Mutation") @Timespan long mutation;
+        @Label("Repair") @Timespan long repair;
+        @Label("Expansion") @Timespan long expansion;
+        @Label("Index") @Timespan long index;
+        @Label("Local Search") @Timespan long localSearch;
+        @Label("Cache Commit") @Timespan long cacheCommit;
+        @Label("Sort") @Timespan long sort;
+        @Label("Diversity") @Timespan long diversity;
+        @Label("Reduction") @Timespan long reduction;
+        @Label("Children") long children;
+        @Label("Evaluations") long evaluations;
+        @Label("Edge Probes") long edgeProbes;
+        @Label("Repair Removals") long repairRemovals;
+        @Label("Expansion Additions") long expansionAdditions;
+        @Label("Cache Hits") long cacheHits;
+        @Label("Cache Misses") long cacheMisses;
+    }
+
+    /**
+     * 1 thế hệ đang đo: sự kiện JFR + tổng pha / bộ đếm lúc bắt đầu (chỉ chụp khi JFR đang bật sự kiện).
+     * Mỗi GA giữ đối tượng của riêng mình nên nhiều GA chạy song song trên 1 GaMetrics không giẫm lên nhau.
+     */
+    static final class Generation {
+        private final GenerationEvent event = new GenerationEvent();
+        private long[] startPhaseNanos;
+        private long[] startCounters;
+    }
+
+    /** Bắt đầu đo 1 thế hệ (luồng GA) */
+    Generation beginGeneration() {
+        Generation gen = new Generation();
+        if (gen.event.isEnabled()) {
+            gen.startPhaseNanos = new long[PHASES.length];
+            gen.startCounters = new long[COUNTERS.length];
+            sumAll(gen.startPhaseNanos, gen.startCounters);
+        }
+        gen.event.begin();
+        return gen;
+    }
+
+    /**
+     * Kết thúc thế hệ: ghi pha GENERATION, phát sự kiện JFR nếu đang ghi (luồng GA).
+     * Chỉ gộp các Recorder khi sự kiện sẽ được commit — không ghi JFR thì không tốn gì thêm.
+     */
+    void endGeneration(Generation gen, int generation, int bestFitness, long generationNanos) {
+        recorder().record(Phase.GENERATION, generationNanos);
+        GenerationEvent event = gen.event;
+        event.end();
+        if (gen.startPhaseNanos == null || !event.shouldCommit()) {
+            return;
+        }
+        long[] phaseNanos = new long[PHASES.length];
+        long[] counters = new long[COUNTERS.length];
+        sumAll(phaseNanos, counters);
+        for (int i = 0; i < phaseNanos.length; i++) phaseNanos[i] -= gen.startPhaseNanos[i];
+        for (int i = 0; i < counters.length; i++) counters[i] -= gen.startCounters[i];
+        event.generation = generation;
+        event.bestFitness = bestFitness;
+        event.selection = phaseNanos[Phase.SELECTION.ordinal()];
+        event.crossover = phaseNanos[Phase.CROSSOVER.ordinal()];
+        event.mutation = phaseNanos[Phase.MUTATION.ordinal()];
+        event.repair = phaseNanos[Phase.REPAIR.ordinal()];
+        event.expansion = phaseNanos[Phase.EXPANSION.ordinal()];
+        event.index = phaseNanos[Phase.INDEX.ordinal()];
+        event.localSearch = phaseNanos[Phase.LOCAL_SEARCH.ordinal()];
+        event.cacheCommit = phaseNanos[Phase.CACHE_COMMIT.ordinal()];
+        event.sort = phaseNanos[Phase.SORT.ordinal()];
+        event.diversity = phaseNanos[Phase.DIVERSITY.ordinal()];
+        event.reduction = phaseNanos[Phase.REDUCTION.ordinal()];
+        event.children = counters[Counter.CHILDREN.ordinal()];
+        event.evaluations = counters[Counter.EVALUATIONS.ordinal()];
+        event.edgeProbes = counters[Counter.EDGE_PROBES.ordinal()];
+        event.repairRemovals = counters[Counter.REPAIR_REMOVALS.ordinal()];
+        event.expansionAdditions = counters[Counter.EXPANSION_ADDITIONS.ordinal()];
+        event.cacheHits = counters[Counter.CACHE_HITS.ordinal()];
+        event.cacheMisses = counters[Counter.CACHE_MISSES.ordinal()];
+        event.commit();
+    }
+
+    // ============================================================
+    // ĐỌC SỐ LIỆU
+    // ============================================================
+
+    /** Cộng tổng pha / bộ đếm của mọi Recorder (kể cả phần đã gộp) vào phaseNanos, counters */
+    private synchronized void sumAll(long[] phaseNanos, long[] counters) {
+        retireFinishedThreads();
+        sumInto(retired, phaseNanos, counters);
+        for (Recorder r : recorders) {
+            sumInto(r, phaseNanos, counters);
+        }
+    }
+
+    private static void sumInto(Recorder r, long[] phaseNanos, long[] counters) {
+        for (int i = 0; i < phaseNanos.length; i++) phaseNanos[i] += r.phases[i].getTotalNanos();
+        for (int i = 0; i < counters.length; i++) counters[i] += r.counters[i];
+    }
+
+    /** Gộp số liệu của mọi luồng (chính xác khi GA không chạy, xấp xỉ nếu gọi giữa lúc chạy) */
+    public synchronized Snapshot snapshot() {
+        retireFinishedThreads();
+        Snapshot s = new Snapshot();
+        s.addAll(retired);
+        for (Recorder r : recorders) {
+            s.addAll(r);
+        }
+        return s;
+    }
+
+    /** Xóa số liệu đã ghi — chỉ gọi khi GA không chạy */
+    public synchronized void reset() {
+        retireFinishedThreads();
+        retired.clear();
+        for (Recorder r : recorders) {
+            r.clear();
+        }
+    }
+
+    /** Số Recorder đang giữ riêng cho từng luồng còn sống (không tính phần đã gộp) */
+    synchronized int liveRecorderCount() {
+        return recorders.size();
+    }
+
+    /** Số liệu đã gộp tại 1 thời điểm */
+    public static final class Snapshot {
+        private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+        private final long[] counters = new long[COUNTERS.length];
+
+        private Snapshot() {
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+
+        private void addAll(Recorder r) {
+            for (int i = 0; i < phases.length; i++) phases[i].add(r.phases[i]);
+            for (int i = 0; i < counters.length; i++) counters[i] += r.counters[i];
+        }
+
+        public LatencyHistogram getHistogram(Phase phase) { return phases[phase.ordinal()]; }
+        public long getTotalNanos(Phase phase) { return phases[phase.ordinal()].getTotalNanos(); }
+        public long getCounter(Counter counter) { return counters[counter.ordinal()]; }
+
+        /** Bảng: mỗi pha có mẫu 1 dòng (số lần, tổng ms, trung bình / p50 / p99 / max µs), rồi các bộ đếm */
+        public String format() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "%-13s %10s %10s %9s %9s %9s %10s%n",
+                    "Pha", "Số lần", "Tổng ms", "TB µs", "p50 µs", "p99 µs", "Max µs"));
+            for (Phase p : PHASES) {
+                LatencyHistogram h = phases[p.ordinal()];
+                if (h.getCount() == 0) continue;
+                sb.append(String.format(Locale.ROOT, "%-13s %10d %10.2f %9.2f %9.2f %9.2f %10.2f%n",
+                        p, h.getCount(), h.getTotalNanos() / 1e6, h.getMean() / 1e3,
+                        h.getValueAtPercentile(0.50) / 1e3, h.getValueAtPercentile(0.99) / 1e3, h.getMax() / 1e3));
+            }
+            for (Counter c : COUNTERS) {
+                sb.append(String.format(Locale.ROOT, "%-20s %d%n", c, counters[c.ordinal()]));
+            }
+            return sb.toString();
+        }
+    }
+}
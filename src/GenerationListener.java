@@ -0,0 +1,27 @@
+/**
+ * Nhận sự kiện từ vòng lặp GA. Được gọi trên luồng chạy GA, ngay trong vòng lặp thế hệ,
+ * nên cài đặt phải rẻ (chỉ chép các trường nguyên thủy, không định dạng chuỗi / ghi file) —
+ * xem GenerationLog cho sink ghi file bất đồng bộ.
+ */
+public interface GenerationListener {
+
+    /**
+     * GA chỉ tính diversity / hamming cho log khi có listener cần thế hệ này
+     * (lấy mẫu mỗi N thế hệ thì trả về false cho các thế hệ bị bỏ qua).
+     */
+    default boolean wantsGeneration(int generation) {
+        return true;
+    }
+
+    /** Kết thúc 1 thế hệ; timeNanos là thời gian chạy thế hệ đó */
+    void onGeneration(int generation, int bestFitness, double diversity, double meanHamming,
+                      int cacheHits, int cacheMisses, long timeNanos);
+
+    /** Rút gọn k-core theo best: số đỉnh vừa bị bóc và số đỉnh còn lại */
+    default void onReduction(int generation, int bestFitness, int removed, int remaining) {
+    }
+
+    /** Lần chạy kết thúc (run / resume trả về) */
+    default void onRunFinished() {
+    }
+}
@@ -0,0 +1,326 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sink ghi log thế hệ ra file trên luồng nền: luồng GA chỉ chép các trường nguyên thủy vào
+ * ring buffer không khóa (nhiều producer - 1 consumer, mỗi ô có số thứ tự riêng), luồng nền
+ * lấy ra, định dạng và ghi. Ring buffer đầy (đĩa không theo kịp) thì bỏ sự kiện và đếm
+ * (getDropped) thay vì chặn GA.
+ *
+ * Định dạng:
+ *  - TEXT:   giống output.txt cũ ("Gen 1 | Best=... | Diversity=... | ..." và "Reduce | ..."),
+ *  - CSV:    type,generation,best,diversity,hamming,cacheHits,cacheMisses,timeNanos,removed,remaining,
+ *  - JSONL:  mỗi dòng 1 object JSON,
+ *  - BINARY: magic "GLOG", version, rồi từng bản ghi little-endian
+ *            (1 byte loại; thế hệ: int gen, int best, double div, double ham, int hit, int miss, long ns;
+ *             rút gọn: int gen, int best, int removed, int remaining).
+ */
+public final class GenerationLog implements GenerationListener, AutoCloseable {
+
+    public enum Format { TEXT, CSV, JSONL, BINARY }
+
+    private static final int BINARY_MAGIC = 0x474F4C47; // "GLOG" khi đọc little-endian
+    private static final int BINARY_VERSION = 1;
+    private static final int TYPE_GENERATION = 0;
+    private static final int TYPE_REDUCTION = 1;
+    // Số trường long của 1 ô trong ring buffer
+    private static final int FIELDS = 8;
+
+    private final Format format;
+    private final int everyGenerations;
+    private final int mask;
+    private final long[] slots;
+    private final AtomicLongArray sequence;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Writer text;
+    private final OutputStream binary;
+    private final ByteBuffer record = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+    private final StringBuilder line = new StringBuilder(160);
+    private final Thread drainer;
+    private volatile boolean closed;
+    private volatile IOException lastError;
+
+    /**
+     * capacity: số sự kiện tối đa chờ ghi (làm tròn lên lũy thừa của 2); everyGenerations: chỉ ghi thế hệ
+     * chia hết cho số này (sự kiện rút gọn luôn được ghi); append: ghi tiếp vào cuối file có sẵn.
+     */
+    public GenerationLog(Path path, Format format, int everyGenerations, int capacity, boolean append)
+            throws IOException {
+        if (everyGenerations < 1) {
+            throw new IllegalArgumentException("Sampling interval must be positive: " + everyGenerations);
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive: " + capacity);
+        }
+        this.format = format;
+        this.everyGenerations = everyGenerations;
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.mask = size - 1;
+        this.slots = new long[size * FIELDS];
+        this.sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequence.set(i, i);
+        }
+
+        StandardOpenOption mode = append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+        if (format == Format.BINARY) {
+            boolean fresh = !append || !Files.exists(path) || Files.size(path) == 0;
+            binary = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, mode), 1 << 16);
+            text = null;
+            if (fresh) {
+                record.clear();
+                record.putInt(BINARY_MAGIC).putInt(BINARY_VERSION);
+                binary.write(record.array(), 0, record.position());
+            }
+        } else {
+            text = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, mode);
+            binary = null;
+            if (format == Format.CSV && (!append || Files.size(path) == 0)) {
+                text.write("type,generation,best,diversity,hamming,cacheHits,cacheMisses,timeNanos,removed,remaining\n");
+            }
+        }
+
+        drainer = new Thread(this::drainLoop, "generation-log");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /** Ghi mọi thế hệ, TEXT, 4096 ô, ghi đè file */
+    public GenerationLog(Path path) throws IOException {
+        this(path, Format.TEXT, 1, 4096, false);
+    }
+
+    // ============================================================
+    // PHÍA GA (producer)
+    // ============================================================
+
+    @Override
+    public boolean wantsGeneration(int generation) {
+        return generation % everyGenerations == 0;
+    }
+
+    @Override
+    public void onGeneration(int generation, int bestFitness, double diversity, double meanHamming,
+                             int cacheHits, int cacheMisses, long timeNanos) {
+        if (!wantsGeneration(generation)) {
+            return;
+        }
+        publish(TYPE_GENERATION, generation, bestFitness, Double.doubleToRawLongBits(diversity),
+                Double.doubleToRawLongBits(meanHamming), cacheHits, cacheMisses, timeNanos);
+    }
+
+    @Override
+    public void onReduction(int generation, int bestFitness, int removed, int remaining) {
+        publish(TYPE_REDUCTION, generation, bestFitness, removed, remaining, 0, 0, 0);
+    }
+
+    /** Chờ ghi hết các sự kiện đã nhận rồi flush file */
+    @Override
+    public void onRunFinished() {
+        flush();
+    }
+
+    private void publish(long type, long f1, long f2, long f3, long f4, long f5, long f6, long f7) {
+        long pos;
+        int idx;
+        while (true) {
+            pos = tail.get();
+            idx = (int) (pos & mask);
+            long seq = sequence.get(idx);
+            if (seq == pos) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+            } else if (seq < pos) {
+                dropped.incrementAndGet(); // đầy
+                return;
+            }
+        }
+        int base = idx * FIELDS;
+        slots[base] = type;
+        slots[base + 1] = f1;
+        slots[base + 2] = f2;
+        slots[base + 3] = f3;
+        slots[base + 4] = f4;
+        slots[base + 5] = f5;
+        slots[base + 6] = f6;
+        slots[base + 7] = f7;
+        sequence.set(idx, pos + 1); // công bố ô cho consumer
+    }
+
+    // ============================================================
+    // LUỒNG NỀN (consumer)
+    // ============================================================
+
+    private void drainLoop() {
+        boolean dirty = false;
+        while (true) {
+            boolean any = false;
+            while (drainOne()) {
+                any = true;
+            }
+            if (closed && head == tail.get()) {
+                break;
+            }
+            if (any) {
+                dirty = true;
+                continue;
+            }
+            // Hết việc: đẩy phần đã định dạng ra file rồi nghỉ 1 ms
+            if (dirty) {
+                flushStream();
+                dirty = false;
+            }
+            LockSupport.parkNanos(1_000_000L);
+        }
+    }
+
+    private void flushStream() {
+        try {
+            if (text != null) text.flush(); else binary.flush();
+        } catch (IOException e) {
+            lastError = e;
+        }
+    }
+
+    private boolean drainOne() {
+        long pos = head;
+        int idx = (int) (pos & mask);
+        if (sequence.get(idx) != pos + 1) {
+            return false;
+        }
+        int base = idx * FIELDS;
+        try {
+            write(slots[base], slots[base + 1], slots[base + 2], slots[base + 3],
+                    slots[base + 4], slots[base + 5], slots[base + 6], slots[base + 7]);
+        } catch (IOException e) {
+            lastError = e;
+        }
+        sequence.set(idx, pos + mask + 1); // trả ô cho producer ở vòng sau
+        head = pos + 1;
+        return true;
+    }
+
+    private void write(long type, long gen, long best, long f3, long f4, long f5, long f6, long f7)
+            throws IOException {
+        boolean generation = type == TYPE_GENERATION;
+        double diversity = generation ? Double.longBitsToDouble(f3) : 0.0;
+        double hamming = generation ? Double.longBitsToDouble(f4) : 0.0;
+        switch (format) {
+            case TEXT -> {
+                line.setLength(0);
+                if (generation) {
+                    line.append("Gen ").append(gen)
+                            .append(" | Best=").append(best)
+                            .append(" | Diversity=").append(String.format("%.4f", diversity))
+                            .append(" | Hamming=").append(String.format("%.4f", hamming))
+                            .append(" | CacheHit=").append(f5)
+                            .append(" | CacheMiss=").append(f6)
+                            .append(" | TimeMs=").append(Math.round(f7 / 1_000_000.0));
+                } else {
+                    line.append("Reduce | Best=").append(best)
+                            .append(" | Removed=").append(f3)
+                            .append(" | Remaining=").append(f4);
+                }
+                text.append(line).append('\n');
+            }
+            case CSV -> {
+                line.setLength(0);
+                if (generation) {
+                    line.append("gen,").append(gen).append(',').append(best).append(',')
+                            .append(diversity).append(',').append(hamming).append(',')
+                            .append(f5).append(',').append(f6).append(',').append(f7).append(",,");
+                } else {
+                    line.append("reduce,").append(gen).append(',').append(best).append(",,,,,,")
+                            .append(f3).append(',').append(f4);
+                }
+                text.append(line).append('\n');
+            }
+            case JSONL -> {
+                line.setLength(0);
+                if (generation) {
+                    line.append("{\"type\":\"gen\",\"generation\":").append(gen)
+                            .append(",\"best\":").append(best)
+                            .append(",\"diversity\":").append(jsonNumber(diversity))
+                            .append(",\"hamming\":").append(jsonNumber(hamming))
+                            .append(",\"cacheHits\":").append(f5)
+                            .append(",\"cacheMisses\":").append(f6)
+                            .append(",\"timeNanos\":").append(f7).append('}');
+                } else {
+                    line.append("{\"type\":\"reduce\",\"generation\":").append(gen)
+                            .append(",\"best\":").append(best)
+                            .append(",\"removed\":").append(f3)
+                            .append(",\"remaining\":").append(f4).append('}');
+                }
+                text.append(line).append('\n');
+            }
+            case BINARY -> {
+                record.clear();
+                record.put((byte) type).putInt((int) gen).putInt((int) best);
+                if (generation) {
+                    record.putDouble(diversity).putDouble(hamming).putInt((int) f5).putInt((int) f6).putLong(f7);
+                } else {
+                    record.putInt((int) f3).putInt((int) f4);
+                }
+                binary.write(record.array(), 0, record.position());
+            }
+        }
+    }
+
+    private static String jsonNumber(double v) {
+        return Double.isFinite(v) ? String.format(Locale.ROOT, "%.6f", v) : "null";
+    }
+
+    // ============================================================
+    // ĐIỀU KHIỂN
+    // ============================================================
+
+    /** Chờ luồng nền ghi hết các sự kiện đã công bố, rồi flush file */
+    public void flush() {
+        long target = tail.get();
+        while (head < target && drainer.isAlive()) {
+            LockSupport.parkNanos(100_000L);
+        }
+        flushStream();
+    }
+
+    /** Ghi nốt các sự kiện còn lại, dừng luồng nền và đóng file */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (text != null) text.close(); else binary.close();
+        } catch (IOException e) {
+            lastError = e;
+        }
+    }
+
+    // ====== GETTER ======
+
+    public Format getFormat() { return format; }
+    public int getEveryGenerations() { return everyGenerations; }
+    /** Số sự kiện bị bỏ vì ring buffer đầy */
+    public long getDropped() { return dropped.get(); }
+    /** Lỗi ghi file gần nhất của luồng nền (null nếu chưa có) */
+    public IOException getLastError() { return lastError; }
+}
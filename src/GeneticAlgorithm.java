@@ -1,13 +1,38 @@
-import java.io.BufferedWriter;
-import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
-import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
 
 public class GeneticAlgorithm {
 
+    /** Một lần best toàn cục được cải thiện: thời điểm (ms từ lúc bắt đầu), thế hệ và fitness mới */
+    public static final class TracePoint {
+        private final long timeMs;
+        private final int generation;
+        private final int fitness;
+
+        TracePoint(long timeMs, int generation, int fitness) {
+            this.timeMs = timeMs;
+            this.generation = generation;
+            this.fitness = fitness;
+        }
+
+        public long getTimeMs() { return timeMs; }
+        public int getGeneration() { return generation; }
+        public int getFitness() { return fitness; }
+    }
+
     private final Graph graph;
     private final int populationSize;
     private final int maxGenerations;
@@ -19,22 +44,104 @@ public class GeneticAlgorithm {
 
     private final double indexMin;
     private final double indexMax;
+    // Khoảng [indexMin, indexMax] có loại bớt cá thể nào không (khoảng phủ cả miền indexScore = không lọc)
+    private final boolean indexFilter;
+
+    private static final byte CACHE_NONE = 0;
+    private static final byte CACHE_HIT = 1;
+    private static final byte CACHE_MISS = 2;
+    // Slot dành cho việc đánh giá lại quần thể sau khi rút gọn đồ thị (không trùng slot sinh con)
+    private static final int REMAP_SLOT_BASE = 1 << 30;
 
-    private final Random rand = new Random();
+    // Mỗi slot (thế hệ, vị trí) dùng một SplittableRandom riêng suy ra từ seed
+    // => kết quả giống hệt nhau bất kể số luồng
+    private long seed = new Random().nextLong();
+    private int threads = 1;
 
     private double executionTimeSec;
     private int actualGenerations;
     private double finalDiversity;
+    private double finalMeanHamming;
     private boolean earlyStopped;
     private String stopReason;
 
-    // Lịch sử fitness để Main tự vẽ biểu đồ
-    private final List<Integer> genHistory = new ArrayList<>();
-    private final List<Integer> bestFitnessHistory = new ArrayList<>();
+    // Lịch sử fitness để Main tự vẽ biểu đồ (mảng nguyên thủy, cùng chế độ giữ => luôn khớp nhau theo vị trí)
+    private IntSeries genHistory = new IntSeries();
+    private IntSeries bestFitnessHistory = new IntSeries();
 
-    private final List<Integer> genTimeMsHistory = new ArrayList<>();
+    private IntSeries genTimeMsHistory = new IntSeries();
+    private LongSeries genTimeNanosHistory = new LongSeries();
+    // Thời gian đạt từng mức best (đọc được trong lúc đang chạy)
+    private final List<TracePoint> bestTrace = new CopyOnWriteArrayList<>();
+
+    // Trạng thái của lần chạy hiện tại (giữa startRun() và finishRun())
+    private long startTimeMillis;
+    private long startNanos;
+    private long deadlineNanos;        // Long.MAX_VALUE = không giới hạn thời gian
+    private volatile boolean cancelled;
+    private ForkJoinPool pool;
+    private Population population;
+    // volatile: getBestSoFar() đọc từ luồng khác; mỗi lần cải thiện gán 1 cá thể mới, không sửa tại chỗ
+    private volatile Individual globalBest;
+    private int noImproveCount;
+    // Log output.txt do GA tự tạo khi enableLogging (đóng ở finishRun)
+    private GenerationLog ownLog;
+    private boolean finished;
+    private Diversity diversityMeter;
+    private EvaluationCache evalCache;
+    // Mỗi slot có tối đa 2 lần đánh giá (sau lai ghép, sau đột biến): khóa cache và trạng thái
+    // (CACHE_NONE / CACHE_HIT / CACHE_MISS) của từng lần, chỉ số = 2 * slot + lần
+    private long[] slotCacheKeys;
+    private byte[] slotCacheState;
+    private EvaluationCache.Entry[] slotCacheEntries;
+    private int lastCacheHits;
+    private int lastCacheMisses;
+    // Chế độ steady-state: quần thể theo xô fitness thay cho Population (null = chế độ thế hệ)
+    private FitnessBuckets buckets;
+    private final List<Individual> sortedSnapshot = new ArrayList<>();
+    // Rút gọn k-core: GA tiến hóa trên workingGraph (đồ thị con của graph, đánh số lại);
+    // globalBest luôn theo chỉ số của graph gốc
+    private Graph workingGraph;
+    private int[] workingToOriginal;   // null = workingGraph chính là graph
+    private int[] originalToWorking;
+    private int reducedAtFitness;
+    private int removedVertices;
     // Flag
     private boolean enableLogging = true;  // ghi file output.txt
+    private final List<GenerationListener> listeners = new ArrayList<>();
+    private ExpandPolicy expandPolicy = ExpandPolicy.RANDOM;
+    private SelectionStrategy selectionStrategy = new RankSelection();
+    private CrossoverOperator crossoverOperator = StandardCrossover.ONE_POINT;
+    private MutationOperator mutationOperator = StandardMutation.GEOMETRIC_SKIP;
+    // Giai đoạn tìm kiếm cục bộ sau khi đánh giá con (null = tắt)
+    private LocalSearch localSearch;
+    private boolean localSearchElitesOnly;
+    // Fitness tối thiểu để con được tìm kiếm cục bộ ở thế hệ đang sinh (chế độ chỉ-elite)
+    private int localSearchMinFitness;
+    // Dừng sớm khi khoảng cách Hamming trung bình (chuẩn hóa theo n) thấp hơn ngưỡng này (0 = tắt)
+    private double hammingThreshold = 0.0;
+    // Giới hạn bộ nhớ của cache đánh giá (0 = tắt cache)
+    private long evaluationCacheBytes = 32L << 20;
+    // Số con sinh ra mỗi bước ở chế độ steady-state (0 = chế độ thế hệ: thay cả quần thể mỗi thế hệ)
+    private int steadyStateOffspring = 0;
+    // Steady-state: ghi log output.txt / đo đa dạng cho điều kiện dừng mỗi bao nhiêu bước (0 = tự chọn)
+    private int steadyStateSampling = 0;
+    // Bóc k-core theo best hiện tại trước khi chạy và mỗi khi best tăng
+    private boolean graphReduction = true;
+    // Đánh số lại đỉnh trước khi chạy (null = giữ thứ tự của file input)
+    private VertexOrdering.Order vertexOrdering;
+    // Ngân sách thời gian của 1 lần chạy (0 = chỉ giới hạn bởi maxGenerations)
+    private long timeLimitMillis = 0;
+    // Checkpoint bất đồng bộ mỗi checkpointEvery thế hệ (null = tắt)
+    private Path checkpointPath;
+    private int checkpointEvery;
+    private CheckpointWriter checkpointWriter;
+    private long graphHash;
+    // Cận trên ω(G) tính lúc bắt đầu; best đạt cận thì dừng ngay (đã tối ưu)
+    private boolean upperBoundStop = true;
+    private CliqueBound upperBound;
+    // Đo thời gian từng pha / bộ đếm (null = tắt)
+    private GaMetrics metrics;
 
     // ============================================================
     // CONSTRUCTOR
@@ -61,6 +168,7 @@ public class GeneticAlgorithm {
 
         this.indexMin = indexMin;
         this.indexMax = indexMax;
+        this.indexFilter = indexMax > indexMin && (indexMin > 0.0 || indexMax < Individual.MAX_INDEX_SCORE);
 
         this.executionTimeSec = 0.0;
         this.actualGenerations = 0;
@@ -72,124 +180,441 @@ public class GeneticAlgorithm {
     // ============================================================
     // SETTER
     // ============================================================
+    /** Ghi log từng thế hệ ra output.txt (định dạng TEXT, luồng nền — xem GenerationLog) */
     public void setEnableLogging(boolean enableLogging) {
         this.enableLogging = enableLogging;
     }
 
+    public boolean isEnableLogging() {
+        return enableLogging;
+    }
+
+    /** Thêm listener nhận sự kiện thế hệ / rút gọn (ví dụ GenerationLog CSV, JSONL, nhị phân) */
+    public void addGenerationListener(GenerationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeGenerationListener(GenerationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Chiến lược mở rộng clique cho mọi lần đánh giá (con lai ghép lẫn con đột biến). Cache đánh giá khóa
+     * theo fingerprint nên chỉ đúng khi cả lần chạy dùng 1 chiến lược — đặt trước run(), không đổi giữa chừng.
+     */
+    public void setExpandPolicy(ExpandPolicy expandPolicy) {
+        this.expandPolicy = expandPolicy;
+    }
+
+    /** Chiến lược chọn bố mẹ (mặc định: chọn theo hạng) */
+    public void setSelectionStrategy(SelectionStrategy selectionStrategy) {
+        this.selectionStrategy = selectionStrategy;
+    }
+
+    /** Toán tử lai ghép (mặc định: đơn điểm theo word) */
+    public void setCrossoverOperator(CrossoverOperator crossoverOperator) {
+        this.crossoverOperator = crossoverOperator;
+    }
+
+    /** Toán tử đột biến (mặc định: lấy mẫu bước nhảy hình học) */
+    public void setMutationOperator(MutationOperator mutationOperator) {
+        this.mutationOperator = mutationOperator;
+    }
+
+    /**
+     * Bật giai đoạn memetic: sau khi đánh giá, con được cải thiện bằng LocalSearch (null = tắt).
+     * elitesOnly: chỉ áp dụng cho con có fitness >= fitness của cá thể elite kém nhất thế hệ trước
+     * (chế độ steady-state: >= cá thể tốt nhất), để dồn ngân sách bước cho các cá thể hứa hẹn.
+     */
+    public void setLocalSearch(LocalSearch localSearch, boolean elitesOnly) {
+        this.localSearch = localSearch;
+        this.localSearchElitesOnly = elitesOnly;
+    }
+
+    /** Seed của lần chạy: cùng seed + cùng tham số => cùng kết quả */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /** Ngưỡng dừng sớm theo Hamming trung bình ∈ [0, 1] giữa các cá thể (0 = không dùng) */
+    public void setHammingThreshold(double hammingThreshold) {
+        this.hammingThreshold = Math.max(0.0, hammingThreshold);
+    }
+
+    /** Giới hạn bộ nhớ (byte) của cache kết quả đánh giá theo bộ gen; 0 = không dùng cache */
+    public void setEvaluationCacheBytes(long evaluationCacheBytes) {
+        this.evaluationCacheBytes = Math.max(0L, evaluationCacheBytes);
+    }
+
+    /**
+     * Bật chế độ steady-state: mỗi bước (1 "thế hệ" trong lịch sử / log) chỉ sinh offspringPerStep con,
+     * mỗi con thay cá thể kém nhất nếu không kém hơn nó. Quần thể giữ trong FitnessBuckets nên không phải
+     * sắp xếp lại cả quần thể; eliteCount không dùng (cá thể tốt nhất không bao giờ bị thay).
+     * 0 = chế độ thế hệ (mặc định).
+     */
+    public void setSteadyState(int offspringPerStep) {
+        this.steadyStateOffspring = Math.max(0, offspringPerStep);
+    }
+
+    /**
+     * Steady-state: output.txt và phép đo đa dạng / Hamming cho điều kiện dừng chỉ chạy mỗi everySteps bước
+     * (mỗi lần đo tốn O(quần thể) trở lên, trong khi 1 bước chỉ sinh vài con). 0 = tự chọn (mặc định):
+     * populationSize / offspringPerStep bước, tức khoảng 1 lần thay hết quần thể. Listener tự thêm không bị ảnh hưởng.
+     */
+    public void setSteadyStateSampling(int everySteps) {
+        this.steadyStateSampling = Math.max(0, everySteps);
+    }
+
+    /**
+     * Bật / tắt rút gọn đồ thị: bỏ các đỉnh không thể nằm trong clique lớn hơn best hiện tại
+     * (bóc best-core), đánh số lại đỉnh còn lại, lặp lại mỗi khi best tăng. Mặc định bật.
+     */
+    public void setGraphReduction(boolean graphReduction) {
+        this.graphReduction = graphReduction;
+    }
+
+    /**
+     * Đánh số lại đỉnh theo order trước khi khởi tạo quần thể, để các đỉnh cùng lõi / láng giềng
+     * của nhau nằm gần nhau trên chuỗi gen (lai ghép cắt đoạn ít phá vỡ chúng hơn).
+     * Kết quả (getBest...) vẫn theo chỉ số gốc. null = tắt (mặc định).
+     */
+    public void setVertexOrdering(VertexOrdering.Order order) {
+        this.vertexOrdering = order;
+    }
+
+    /**
+     * Bật / tắt tính cận trên ω(G) (tô màu, core number + 1) lúc bắt đầu và dừng ngay khi best đạt cận.
+     * Mặc định bật.
+     */
+    public void setUpperBoundStop(boolean upperBoundStop) {
+        this.upperBoundStop = upperBoundStop;
+    }
+
+    /**
+     * Ngân sách thời gian (mili giây) cho 1 lần chạy, tính cả khởi tạo quần thể. Được kiểm tra trước mỗi
+     * lần sinh con: hết giờ thì các slot còn lại giữ cá thể cũ, thế hệ đó kết thúc và GA dừng.
+     * 0 = không giới hạn (mặc định); giá trị quá lớn (vd Long.MAX_VALUE) cũng coi như không giới hạn.
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = Math.max(0, timeLimitMillis);
+    }
+
+    /**
+     * Yêu cầu dừng lần chạy đang diễn ra (gọi được từ luồng khác). Giống hết giờ: dừng sau con đang sinh,
+     * run() trả về best hiện có. Gọi trước khi run() bắt đầu (hoặc lúc đang khởi tạo) cũng có hiệu lực:
+     * lần chạy dừng ngay sau thế hệ 0. Cờ được xóa khi lần chạy kết thúc (finishRun).
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Ghi checkpoint (quần thể, cache, best, lịch sử, thế hệ...) ra path sau mỗi everyGenerations thế hệ:
+     * mã hóa trên luồng GA (tỉ lệ với kích thước cache đánh giá), ghi file trên luồng nền. resume(path) chạy tiếp từ đúng thế hệ đó với kết quả như khi không bị ngắt.
+     * path = null hoặc everyGenerations <= 0: tắt (mặc định).
+     */
+    public void setCheckpoint(Path path, int everyGenerations) {
+        this.checkpointPath = (everyGenerations > 0) ? path : null;
+        this.checkpointEvery = Math.max(0, everyGenerations);
+    }
+
+    /**
+     * Cách giữ lịch sử theo thế hệ (genHistory, bestFitnessHistory, thời gian): ALL (mặc định) giữ hết;
+     * RING giữ capacity thế hệ gần nhất; DECIMATE giữ tối đa capacity thế hệ cách đều trên cả lần chạy.
+     * RING / DECIMATE giữ bộ nhớ cố định cho lần chạy hàng triệu thế hệ.
+     */
+    public void setHistoryRetention(PrimitiveSeries.Retention retention, int capacity) {
+        genHistory = new IntSeries(retention, capacity);
+        bestFitnessHistory = new IntSeries(retention, capacity);
+        genTimeMsHistory = new IntSeries(retention, capacity);
+        genTimeNanosHistory = new LongSeries(retention, capacity);
+    }
+
+    /** Số luồng sinh con song song (1 = tuần tự trên luồng gọi run()) */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Gắn bộ đo thời gian từng pha (nano giây) và các bộ đếm, kèm sự kiện JFR mỗi thế hệ — xem GaMetrics.
+     * null (mặc định): tắt, không đo gì. Không ảnh hưởng kết quả GA; số liệu không lưu vào checkpoint.
+     */
+    public void setMetrics(GaMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     // ============================================================
     // CHẠY GA 1 LẦN
     // ============================================================
     public Individual run() {
+        startRun();
+        while (step()) {
+            // mỗi lần step() chạy đúng 1 thế hệ
+        }
+        return finishRun();
+    }
+
+    /**
+     * Chạy tiếp từ file checkpoint (ghi bởi setCheckpoint) cho tới khi dừng như run().
+     * GA phải được tạo với cùng đồ thị, kích thước quần thể và chế độ steady-state; seed lấy từ checkpoint.
+     * Các tham số còn lại (maxGenerations, patience, ...) dùng giá trị hiện tại của GA.
+     */
+    public Individual resume(Path checkpoint) throws IOException {
+        ByteBuffer in = CheckpointWriter.read(checkpoint);
+        restoreRun(in);
+        while (step()) {
+            // mỗi lần step() chạy đúng 1 thế hệ
+        }
+        return finishRun();
+    }
+
+    // ============================================================
+    // CHẠY TỪNG THẾ HỆ (dùng cho run() và IslandModel)
+    // ============================================================
+
+    /** Khởi tạo thống kê, pool, quần thể ban đầu (thế hệ 0) và file log */
+    void startRun() {
+        beginRun(0L);
+        if (vertexOrdering != null && !stopRequested()) {
+            VertexOrdering ordering = VertexOrdering.relabel(graph, vertexOrdering);
+            workingGraph = ordering.getGraph();
+            workingToOriginal = ordering.getNewToOld();
+            originalToWorking = ordering.getOldToNew();
+        }
+        diversityMeter = new Diversity(workingGraph.size(), mix64(seed));
+        evalCache = (evaluationCacheBytes > 0) ? new EvaluationCache(evaluationCacheBytes) : null;
+
+        // Khởi tạo quần thể (thế hệ 0)
+        Individual[] initial = new Individual[Math.max(0, populationSize)];
+        // Đã hủy / hết giờ: bỏ các slot chưa sinh, luôn giữ slot 0 để có best
+        forEachSlot(pool, 0, initial.length,
+                slot -> initial[slot] = (slot > 0 && stopRequested())
+                        ? null
+                        : new Individual(workingGraph, slotRandom(0, slot), expandPolicy));
+        List<Individual> created = new ArrayList<>(initial.length);
+        for (Individual ind : initial) {
+            if (ind == null) continue;
+            created.add(ind);
+            if (evalCache != null) {
+                evalCache.putEvaluated(ind);
+            }
+        }
+        population = new Population(created);
+        buckets = null;
+        if (steadyStateOffspring > 0) {
+            buckets = new FitnessBuckets(workingGraph.size());
+            buckets.addAll(population.getIndividuals());
+        }
+
+        improveGlobalBest(population.getBest());
+
+        try {
+            openLog(false);
+            reduceGraph();
+            checkUpperBound();
+        } catch (Exception e) {
+            System.err.println("Lỗi GA: " + e.getMessage());
+            finished = true;
+        }
+    }
 
+    /** Phần chung của startRun / restoreRun: thống kê, cờ dừng, cận trên, pool, bộ đệm slot, checkpoint */
+    private void beginRun(long elapsedNanos) {
         // Thống kê 1 lần chạy
-        long startTimeMillis = System.currentTimeMillis();
+        startTimeMillis = System.currentTimeMillis() - elapsedNanos / 1_000_000L;
+        startNanos = System.nanoTime() - elapsedNanos;
+        deadlineNanos = (timeLimitMillis > 0) ? deadlineAfter(startNanos, timeLimitMillis) : Long.MAX_VALUE;
+        globalBest = null;
         genHistory.clear();
         bestFitnessHistory.clear();
+        bestTrace.clear();
 
         genTimeMsHistory.clear();
+        genTimeNanosHistory.clear();
         earlyStopped = false;
         stopReason = "Đạt số thế hệ tối đa";
         actualGenerations = 0;
+        finished = false;
+        workingGraph = graph;
+        workingToOriginal = null;
+        originalToWorking = null;
+        reducedAtFitness = 0;
+        removedVertices = 0;
 
-        // Khởi tạo quần thể
-        Population population = new Population(graph, populationSize, rand);
+        upperBound = (upperBoundStop && !stopRequested()) ? CliqueBound.compute(graph, this::stopRequested) : null;
 
-        Individual globalBest = population.getBest().cloneIndividual();
-        int noImproveCount = 0;
+        pool = (threads > 1) ? new ForkJoinPool(threads) : null;
+        slotCacheKeys = new long[2 * Math.max(0, populationSize)];
+        slotCacheState = new byte[2 * Math.max(0, populationSize)];
+        slotCacheEntries = new EvaluationCache.Entry[2 * Math.max(0, populationSize)];
+        ownLog = null;
 
-        BufferedWriter bw = null;
+        checkpointWriter = null;
+        if (checkpointPath != null) {
+            graphHash = BinaryGraphFormat.contentHash(graph);
+            checkpointWriter = new CheckpointWriter(checkpointPath);
+        }
+    }
 
-        try {
-            if (enableLogging) {
-                bw = new BufferedWriter(new FileWriter("output.txt"));
-            }
+    private void openLog(boolean append) throws IOException {
+        if (enableLogging) {
+            ownLog = new GenerationLog(Paths.get("output.txt"), GenerationLog.Format.TEXT, sampleEvery(), 4096, append);
+            listeners.add(ownLog);
+        }
+    }
 
-            for (int gen = 0; gen < maxGenerations; gen++) {
-                actualGenerations = gen + 1;
+    /** Số bước giữa 2 lần đo đa dạng / ghi output.txt: 1 ở chế độ thế hệ, xem setSteadyStateSampling */
+    private int sampleEvery() {
+        if (steadyStateOffspring <= 0) return 1;
+        if (steadyStateSampling > 0) return steadyStateSampling;
+        return Math.max(1, populationSize / steadyStateOffspring);
+    }
 
+    /** Có listener cần sự kiện của thế hệ generation không */
+    private boolean wantsLog(int generation) {
+        for (GenerationListener l : listeners) {
+            if (l.wantsGeneration(generation)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-                long genStartNs = System.nanoTime();
-                List<Individual> newIndividuals = new ArrayList<>(populationSize);
+    /**
+     * Chạy 1 thế hệ. Trả về false khi đã đạt maxGenerations, dừng sớm hoặc gặp lỗi
+     * (khi đó không được gọi step() thêm nữa).
+     */
+    boolean step() {
+        if (finished || actualGenerations >= maxGenerations || checkStopRequest()) {
+            finished = true;
+            return false;
+        }
 
-                // ===== 1) ELITISM =====
-                int elites = Math.min(eliteCount, populationSize);
-                for (int i = 0; i < elites; i++) {
-                    newIndividuals.add(population.getIndividuals().get(i).cloneIndividual());
-                }
+        try {
+            actualGenerations++;
 
-                // ===== 2) SINH NGẪU NHIÊN CÓ CHỌN LỌC =====
-                while (newIndividuals.size() < populationSize) {
-                    Individual p1 = selectParentWithIndex(population);
-                    Individual p2 = selectParentWithIndex(population);
+            GaMetrics.Recorder rec = (metrics != null) ? metrics.recorder() : null;
+            GaMetrics.Generation genMetrics = (metrics != null) ? metrics.beginGeneration() : null;
+            long genStartNs = System.nanoTime();
+            if (buckets != null) {
+                breedSteadyState(actualGenerations);
+            } else {
+                breedGeneration(actualGenerations);
+            }
+            int cacheHits = lastCacheHits;
+            int cacheMisses = lastCacheMisses;
 
-                    Individual child;
+            // ===== 4) CẬP NHẬT BEST =====
+            Individual currentBest = (buckets != null) ? buckets.getBest() : population.getBest();
+            int bestFit = currentBest.getFitness();
+            if (bestFit > globalBest.getFitness()) {
+                improveGlobalBest(currentBest);
+                long reduceStart = (rec != null) ? System.nanoTime() : 0;
+                reduceGraph();
+                if (rec != null) rec.lap(GaMetrics.Phase.REDUCTION, reduceStart);
+                checkUpperBound();
+            } else {
+                noImproveCount++;
+            }
 
-                    if (rand.nextDouble() < crossoverRate) {
-                        child = Individual.crossover(p1, p2, rand);
-                    } else {
-                        child = p1.cloneIndividual();
-                    }
+            // ===== 5) GHI LỊCH SỬ =====
+            // Steady-state: đo đa dạng tốn O(n) mỗi bước nên chỉ đo khi cần cho log, hoặc cho điều kiện dừng
+            // ở các bước lấy mẫu (mỗi sampleEvery() bước)
+            boolean logging = wantsLog(actualGenerations);
+            boolean sampled = actualGenerations % sampleEvery() == 0;
+            boolean needDiversity = buckets == null || logging
+                    || (sampled && (diversityThreshold > 0 || hammingThreshold > 0));
+            long t = (rec != null) ? System.nanoTime() : 0;
+            List<Individual> current = needDiversity ? sortedIndividuals() : null;
+            double diversity = needDiversity ? diversityMeter.uniqueRatio(current) : 0.0;
+            // Hamming tốn O(số cặp * số word) nên chỉ tính khi cần cho log hoặc điều kiện dừng
+            boolean needHamming = logging || (sampled && hammingThreshold > 0);
+            double hamming = needHamming ? diversityMeter.meanHamming(current) : 0.0;
+            if (rec != null && needDiversity) rec.lap(GaMetrics.Phase.DIVERSITY, t);
 
-                    double mr = mutationRateFor(child);
-                    child.mutate(mr, rand);
-                    child.calculateFitness(rand);
+            genHistory.add(actualGenerations);
+            bestFitnessHistory.add(bestFit);
+            // ===== 6) DỪNG SỚM =====
+            boolean stop1 = (patience > 0 && noImproveCount >= patience);
+            boolean stop2 = (diversityThreshold > 0 && needDiversity && diversity < diversityThreshold);
+            boolean stop3 = (hammingThreshold > 0 && needHamming && hamming < hammingThreshold);
 
-                    newIndividuals.add(child);
-                }
+            // ===== THỜI GIAN / GENERATION (ms) =====
+            long genEndNs = System.nanoTime();
+            int genTimeMs = (int) Math.max(0, Math.round((genEndNs - genStartNs) / 1_000_000.0));
+            genTimeMsHistory.add(genTimeMs);
+            genTimeNanosHistory.add(genEndNs - genStartNs);
 
-                // ===== 3) CẬP NHẬT QUẦN THỂ =====
-                population.getIndividuals().clear();
-                population.getIndividuals().addAll(newIndividuals);
-                population.sortByFitness();
-
-                // ===== 4) CẬP NHẬT BEST =====
-                Individual currentBest = population.getBest();
-                if (currentBest.getFitness() > globalBest.getFitness()) {
-                    globalBest = currentBest.cloneIndividual();
-                    noImproveCount = 0;
-                } else {
-                    noImproveCount++;
+            if (logging) {
+                for (GenerationListener l : listeners) {
+                    l.onGeneration(actualGenerations, bestFit, diversity, hamming,
+                            cacheHits, cacheMisses, genEndNs - genStartNs);
                 }
+                if (rec != null) rec.lap(GaMetrics.Phase.LOG, genEndNs);
+            }
 
-                // ===== 5) GHI LỊCH SỬ =====
-                int bestFit = currentBest.getFitness();
-                double diversity = computeDiversity(population);
-
-                genHistory.add(actualGenerations);
-                bestFitnessHistory.add(bestFit);
-                // ===== 6) DỪNG SỚM =====
-                boolean stop1 = (patience > 0 && noImproveCount >= patience);
-                boolean stop2 = (diversityThreshold > 0 && diversity < diversityThreshold);
-
-                // ===== THỜI GIAN / GENERATION (ms) =====
-                long genEndNs = System.nanoTime();
-                int genTimeMs = (int) Math.max(0, Math.round((genEndNs - genStartNs) / 1_000_000.0));
-                genTimeMsHistory.add(genTimeMs);
-
-                if (enableLogging && bw != null) {
-                    bw.write("Gen " + actualGenerations +
-                            " | Best=" + bestFit +
-                            " | Diversity=" + String.format("%.4f", diversity) +
-                            " | TimeMs=" + genTimeMs + "\n");
-                }
+            if (finished) {
+                // reduceGraph / checkUpperBound đã chứng minh best là tối ưu
+            } else if (checkStopRequest()) {
+                // hết thời gian / bị hủy (có thể giữa thế hệ vừa rồi)
+            } else if (stop1 || stop2 || stop3) {
+                earlyStopped = true;
 
-                if (stop1 || stop2) {
-                    earlyStopped = true;
+                if (stop1) stopReason = "Không cải thiện sau " + patience + " thế hệ";
+                if (stop2) stopReason = "Đa dạng thấp: " + String.format("%.4f", diversity);
+                if (stop3) stopReason = "Hamming trung bình thấp: " + String.format("%.4f", hamming);
 
-                    if (stop1) stopReason = "Không cải thiện sau " + patience + " thế hệ";
-                    if (stop2) stopReason = "Đa dạng thấp: " + String.format("%.4f", diversity);
+                finished = true;
+            }
 
-                    break;
-                }
+            // ===== 7) CHECKPOINT (luồng nền ghi file) =====
+            if (!finished && checkpointWriter != null && actualGenerations % checkpointEvery == 0) {
+                t = (rec != null) ? System.nanoTime() : 0;
+                checkpointWriter.write(this::writeCheckpoint);
+                if (rec != null) rec.lap(GaMetrics.Phase.CHECKPOINT, t);
+            }
+
+            if (metrics != null) {
+                metrics.endGeneration(genMetrics, actualGenerations, bestFit, genEndNs - genStartNs);
             }
+        } catch (Exception e) {
+            System.err.println("Lỗi GA: " + e.getMessage());
+            finished = true;
+        }
 
-            finalDiversity = computeDiversity(population);
+        return !finished && actualGenerations < maxGenerations;
+    }
 
+    /** Kết thúc lần chạy: tính độ đa dạng cuối, đóng log/pool và trả về cá thể tốt nhất */
+    Individual finishRun() {
+        try {
+            List<Individual> current = sortedIndividuals();
+            finalDiversity = meter().uniqueRatio(current);
+            finalMeanHamming = meter().meanHamming(current);
         } catch (Exception e) {
             System.err.println("Lỗi GA: " + e.getMessage());
         }
         finally {
-            try { if (bw != null) bw.close(); } catch (Exception ignored) {}
+            for (GenerationListener l : listeners) {
+                l.onRunFinished();
+            }
+            if (ownLog != null) {
+                listeners.remove(ownLog);
+                ownLog.close();
+                if (ownLog.getLastError() != null) {
+                    System.err.println("Lỗi GA: " + ownLog.getLastError().getMessage());
+                }
+            }
+            if (pool != null) pool.shutdown();
+            if (checkpointWriter != null) {
+                checkpointWriter.close();
+                if (checkpointWriter.getLastError() != null) {
+                    System.err.println("Lỗi GA: " + checkpointWriter.getLastError().getMessage());
+                }
+            }
+            ownLog = null;
+            pool = null;
+            cancelled = false;
         }
 
         // Thời gian chạy (giây)
@@ -198,14 +623,533 @@ public class GeneticAlgorithm {
         return globalBest;
     }
 
+    /** Chế độ thế hệ: giữ elite, sinh lại toàn bộ phần còn lại rồi sắp xếp quần thể mới */
+    private void breedGeneration(int genNo) {
+        Individual[] newIndividuals = new Individual[populationSize];
+
+        // ===== 1) ELITISM =====
+        int elites = Math.min(eliteCount, populationSize);
+        for (int i = 0; i < elites; i++) {
+            newIndividuals[i] = population.getIndividuals().get(i).cloneIndividual();
+        }
+
+        // ===== 2) SINH NGẪU NHIÊN CÓ CHỌN LỌC (mỗi slot độc lập, có thể chạy song song) =====
+        GaMetrics.Recorder rec = (metrics != null) ? metrics.recorder() : null;
+        long t = (rec != null) ? System.nanoTime() : 0;
+        SelectionStrategy.Selector parents = prepareSelector(population.getIndividuals());
+        if (rec != null) rec.lap(GaMetrics.Phase.SELECTION, t);
+        localSearchMinFitness = population.getIndividuals().get(Math.max(0, elites - 1)).getFitness();
+        Arrays.fill(slotCacheState, CACHE_NONE);
+        List<Individual> previous = population.getIndividuals();
+        forEachSlot(pool, elites, populationSize,
+                slot -> newIndividuals[slot] = stopRequested()
+                        ? previous.get(slot) // hết giờ: giữ cá thể cũ, không sinh con
+                        : breedChild(parents, slotRandom(genNo, slot), slot));
+        if (rec != null) t = System.nanoTime();
+        commitCache(elites, populationSize);
+        if (rec != null) t = rec.lap(GaMetrics.Phase.CACHE_COMMIT, t);
+
+        // ===== 3) CẬP NHẬT QUẦN THỂ =====
+        population.getIndividuals().clear();
+        population.getIndividuals().addAll(Arrays.asList(newIndividuals));
+        population.sortByFitness();
+        if (rec != null) rec.lap(GaMetrics.Phase.SORT, t);
+    }
+
+    /**
+     * Chế độ steady-state: sinh steadyStateOffspring con từ quần thể hiện tại (song song được),
+     * sau đó lần lượt theo slot, con thay cá thể kém nhất nếu fitness không nhỏ hơn — O(1) mỗi lần thay.
+     */
+    private void breedSteadyState(int genNo) {
+        int count = Math.min(steadyStateOffspring, populationSize);
+        Individual[] children = new Individual[count];
+
+        // Lọc theo index cần duyệt cả quần thể => dùng bản sao đã sắp xếp; không lọc (kể cả khoảng phủ cả
+        // miền indexScore, như mặc định 0..1 của Main) thì đọc thẳng các xô
+        GaMetrics.Recorder rec = (metrics != null) ? metrics.recorder() : null;
+        long t = (rec != null) ? System.nanoTime() : 0;
+        List<Individual> sorted = indexFilter ? sortedIndividuals() : buckets.sortedView();
+        SelectionStrategy.Selector parents = prepareSelector(sorted);
+        if (rec != null) rec.lap(GaMetrics.Phase.SELECTION, t);
+        localSearchMinFitness = buckets.getBest().getFitness();
+        Arrays.fill(slotCacheState, 0, 2 * count, CACHE_NONE);
+        forEachSlot(pool, 0, count,
+                slot -> children[slot] = stopRequested() ? null : breedChild(parents, slotRandom(genNo, slot), slot));
+        if (rec != null) t = System.nanoTime();
+        commitCache(0, count);
+        if (rec != null) t = rec.lap(GaMetrics.Phase.CACHE_COMMIT, t);
+
+        for (Individual child : children) {
+            if (child != null && child.getFitness() >= buckets.getWorst().getFitness()) {
+                buckets.removeWorst();
+                buckets.add(child);
+            }
+        }
+        if (rec != null) rec.lap(GaMetrics.Phase.SORT, t);
+    }
+
+    /** Cập nhật cache tuần tự theo slot => nội dung cache không phụ thuộc số luồng */
+    private void commitCache(int fromSlot, int toSlot) {
+        lastCacheHits = 0;
+        lastCacheMisses = 0;
+        if (evalCache == null) {
+            return;
+        }
+        for (int i = 2 * fromSlot; i < 2 * toSlot; i++) {
+            if (slotCacheState[i] == CACHE_HIT) {
+                evalCache.touch(slotCacheKeys[i]);
+                lastCacheHits++;
+            } else if (slotCacheState[i] == CACHE_MISS) {
+                evalCache.put(slotCacheKeys[i], slotCacheEntries[i]);
+                slotCacheEntries[i] = null;
+                lastCacheMisses++;
+            }
+        }
+        if (metrics != null) {
+            GaMetrics.Recorder rec = metrics.recorder();
+            rec.add(GaMetrics.Counter.CACHE_HITS, lastCacheHits);
+            rec.add(GaMetrics.Counter.CACHE_MISSES, lastCacheMisses);
+        }
+    }
+
+    /** Quần thể hiện tại theo fitness giảm dần (steady-state: chép từ các xô vào danh sách dùng lại) */
+    private List<Individual> sortedIndividuals() {
+        if (buckets == null) {
+            return population.getIndividuals();
+        }
+        buckets.copySortedTo(sortedSnapshot);
+        return sortedSnapshot;
+    }
+
+    // ============================================================
+    // CHECKPOINT
+    // ============================================================
+
+    /**
+     * Trạng thái cuối 1 thế hệ (sau phần đầu magic + version của CheckpointWriter), little-endian:
+     *   graphHash, n, populationSize, steadyStateOffspring, seed,
+     *   actualGenerations, noImproveCount, reducedAtFitness, removedVertices, elapsedNanos, diversity.sampleCalls,
+     *   ánh xạ đồ thị đang dùng -> gốc (cờ 1 byte + int[]),
+     *   quần thể theo thứ tự hiện tại (fitness, indexScore, fingerprint, long[] gen),
+     *   globalBest, lịch sử (genHistory, bestFitnessHistory, genTimeMsHistory, genTimeNanosHistory — mỗi chuỗi
+     *   gồm chế độ giữ + trạng thái + giá trị, xem PrimitiveSeries; vết time-to-best),
+     *   cache đánh giá theo thứ tự LRU (cờ 1 byte, bộ đếm, các mục khóa + clique).
+     * RNG không cần lưu: mọi nguồn ngẫu nhiên suy ra từ (seed, thế hệ, slot).
+     */
+    private void writeCheckpoint(ByteBuffer out) {
+        out.putLong(graphHash).putInt(graph.size()).putInt(populationSize).putInt(steadyStateOffspring).putLong(seed);
+        out.putInt(actualGenerations).putInt(noImproveCount).putInt(reducedAtFitness).putInt(removedVertices);
+        out.putLong(System.nanoTime() - startNanos).putLong(diversityMeter.getSampleCalls());
+
+        out.put((byte) (workingToOriginal != null ? 1 : 0));
+        if (workingToOriginal != null) {
+            CheckpointWriter.putInts(out, workingToOriginal, 0, workingToOriginal.length);
+        }
+
+        List<Individual> inds = sortedIndividuals();
+        out.putInt(inds.size());
+        for (Individual ind : inds) {
+            putIndividual(out, ind);
+        }
+        putIndividual(out, globalBest);
+
+        genHistory.write(out);
+        bestFitnessHistory.write(out);
+        genTimeMsHistory.write(out);
+        genTimeNanosHistory.write(out);
+        out.putInt(bestTrace.size());
+        for (TracePoint p : bestTrace) {
+            out.putLong(p.getTimeMs()).putInt(p.getGeneration()).putInt(p.getFitness());
+        }
+
+        out.put((byte) (evalCache != null ? 1 : 0));
+        if (evalCache != null) {
+            out.putLong(evalCache.getHits()).putLong(evalCache.getMisses()).putLong(evalCache.getEvictions());
+            out.putInt(evalCache.size());
+            for (Map.Entry<Long, EvaluationCache.Entry> e : evalCache.entries()) {
+                EvaluationCache.Entry v = e.getValue();
+                out.putLong(e.getKey()).putInt(v.fitness).putDouble(v.indexScore).putLong(v.fingerprint);
+                CheckpointWriter.putInts(out, v.clique, 0, v.clique.length);
+            }
+        }
+    }
+
+    /** Khôi phục trạng thái do writeCheckpoint ghi, thay cho startRun() */
+    private void restoreRun(ByteBuffer in) {
+        long hash = in.getLong();
+        int n = in.getInt();
+        int popSize = in.getInt();
+        int steady = in.getInt();
+        if (n != graph.size() || hash != BinaryGraphFormat.contentHash(graph)) {
+            throw new IllegalArgumentException("Checkpoint was written for a different graph");
+        }
+        if (popSize != populationSize || steady != steadyStateOffspring) {
+            throw new IllegalArgumentException("Checkpoint population settings differ: size " + popSize
+                    + ", steady-state " + steady);
+        }
+        seed = in.getLong();
+        int generation = in.getInt();
+        int noImprove = in.getInt();
+        int reducedAt = in.getInt();
+        int removed = in.getInt();
+        long elapsedNanos = in.getLong();
+        long sampleCalls = in.getLong();
+
+        beginRun(elapsedNanos);
+        actualGenerations = generation;
+        noImproveCount = noImprove;
+        reducedAtFitness = reducedAt;
+        removedVertices = removed;
+
+        if (in.get() != 0) {
+            workingToOriginal = CheckpointWriter.getInts(in);
+            originalToWorking = new int[graph.size() + 1];
+            for (int v = 1; v < workingToOriginal.length; v++) {
+                originalToWorking[workingToOriginal[v]] = v;
+            }
+            workingGraph = GraphBuilder.relabel(graph, workingToOriginal, originalToWorking);
+        }
+        diversityMeter = new Diversity(workingGraph.size(), mix64(seed));
+        diversityMeter.setSampleCalls(sampleCalls);
+
+        Individual[] restored = new Individual[in.getInt()];
+        for (int i = 0; i < restored.length; i++) {
+            restored[i] = getIndividual(in, workingGraph);
+        }
+        population = new Population(Arrays.asList(restored));
+        buckets = null;
+        if (steadyStateOffspring > 0) {
+            buckets = new FitnessBuckets(workingGraph.size());
+            buckets.addAll(population.getIndividuals());
+        }
+        globalBest = getIndividual(in, graph);
+
+        genHistory = IntSeries.read(in);
+        bestFitnessHistory = IntSeries.read(in);
+        genTimeMsHistory = IntSeries.read(in);
+        genTimeNanosHistory = LongSeries.read(in);
+        int tracePoints = in.getInt();
+        for (int i = 0; i < tracePoints; i++) {
+            bestTrace.add(new TracePoint(in.getLong(), in.getInt(), in.getInt()));
+        }
+
+        evalCache = null;
+        if (in.get() != 0) {
+            long hits = in.getLong();
+            long misses = in.getLong();
+            long evictions = in.getLong();
+            int entries = in.getInt();
+            EvaluationCache cache = new EvaluationCache(Math.max(1, evaluationCacheBytes));
+            for (int i = 0; i < entries; i++) {
+                long key = in.getLong();
+                int fitness = in.getInt();
+                double indexScore = in.getDouble();
+                long fingerprint = in.getLong();
+                cache.restore(key, new EvaluationCache.Entry(CheckpointWriter.getInts(in), fitness, indexScore, fingerprint));
+            }
+            cache.restoreCounters(hits, misses, evictions);
+            evalCache = (evaluationCacheBytes > 0) ? cache : null;
+        }
+
+        try {
+            openLog(true);
+            checkUpperBound();
+        } catch (Exception e) {
+            System.err.println("Lỗi GA: " + e.getMessage());
+            finished = true;
+        }
+    }
+
+    private static void putIndividual(ByteBuffer out, Individual ind) {
+        out.putInt(ind.getFitness()).putDouble(ind.getIndexScore()).putLong(ind.getFingerprint());
+        CheckpointWriter.putLongs(out, ind.getGeneWords());
+    }
+
+    private static Individual getIndividual(ByteBuffer in, Graph g) {
+        int fitness = in.getInt();
+        double indexScore = in.getDouble();
+        long fingerprint = in.getLong();
+        return Individual.ofEvaluated(g, CheckpointWriter.getLongs(in), fitness, indexScore, fingerprint);
+    }
+
+    // ============================================================
+    // DI CƯ (IslandModel)
+    // ============================================================
+
+    /** Bản sao của count cá thể tốt nhất trong quần thể hiện tại */
+    List<Individual> emigrants(int count) {
+        List<Individual> inds = (buckets != null) ? buckets.sortedView() : population.getIndividuals();
+        List<Individual> out = new ArrayList<>(Math.min(count, inds.size()));
+        for (int i = 0; i < count && i < inds.size(); i++) {
+            out.add(toOriginal(inds.get(i)));
+        }
+        return out;
+    }
+
+    /**
+     * Thay các cá thể kém nhất bằng cá thể di cư đến (theo chỉ số đồ thị gốc, được chiếu sang
+     * đồ thị đang dùng) rồi sắp xếp lại quần thể.
+     */
+    void acceptImmigrants(List<Individual> originals) {
+        List<Individual> immigrants = new ArrayList<>(originals.size());
+        for (int i = 0; i < originals.size(); i++) {
+            immigrants.add(toWorking(originals.get(i), slotRandom(actualGenerations, REMAP_SLOT_BASE + i)));
+        }
+        acceptWorkingImmigrants(immigrants);
+        if (buckets != null ? buckets.getBest().getFitness() > reducedAtFitness
+                            : population.getBest().getFitness() > reducedAtFitness) {
+            reduceGraph();
+        }
+    }
+
+    private void acceptWorkingImmigrants(List<Individual> immigrants) {
+        if (buckets != null) {
+            int count = Math.min(immigrants.size(), buckets.size());
+            for (int i = 0; i < count; i++) {
+                buckets.removeWorst();
+                buckets.add(immigrants.get(i));
+            }
+            if (buckets.getBest().getFitness() > globalBest.getFitness()) {
+                improveGlobalBest(buckets.getBest());
+            }
+            return;
+        }
+        List<Individual> inds = population.getIndividuals();
+        int count = Math.min(immigrants.size(), inds.size());
+        for (int i = 0; i < count; i++) {
+            inds.set(inds.size() - 1 - i, immigrants.get(i));
+        }
+        population.sortByFitness();
+        if (population.getBest().getFitness() > globalBest.getFitness()) {
+            improveGlobalBest(population.getBest());
+        }
+    }
+
+    Graph getGraph() {
+        return graph;
+    }
+
+    // ============================================================
+    // RÚT GỌN ĐỒ THỊ (k-core)
+    // ============================================================
+
+    /**
+     * Bóc best-core của đồ thị đang dùng khi best đã tăng kể từ lần rút gọn trước. Nếu bóc được đỉnh:
+     * đánh số lại, chiếu + đánh giá lại cả quần thể trên đồ thị con, làm mới cache và bộ đo đa dạng.
+     * Lõi rỗng nghĩa là không tồn tại clique lớn hơn best => dừng với best là tối ưu.
+     */
+    private void reduceGraph() {
+        int k = globalBest.getFitness();
+        if (!graphReduction || k <= reducedAtFitness) {
+            return;
+        }
+        reducedAtFitness = k;
+        GraphReduction reduction = GraphReduction.reduce(workingGraph, k);
+        if (reduction.getRemoved() == 0) {
+            return;
+        }
+        removedVertices += reduction.getRemoved();
+        int remaining = (reduction.getGraph() != null) ? reduction.getGraph().size() : 0;
+        for (GenerationListener l : listeners) {
+            l.onReduction(actualGenerations, k, reduction.getRemoved(), remaining);
+        }
+        if (reduction.getGraph() == null) {
+            earlyStopped = true;
+            stopReason = "Tối ưu: không còn đỉnh nào có bậc >= " + k + " (k-core rỗng)";
+            finished = true;
+            return;
+        }
+
+        // Ghép ánh xạ chỉ số: đồ thị con mới -> đồ thị gốc
+        int[] newToOld = reduction.getNewToOld();
+        int[] toOriginal = new int[newToOld.length];
+        originalToWorking = new int[graph.size() + 1];
+        for (int v = 1; v < newToOld.length; v++) {
+            toOriginal[v] = (workingToOriginal != null) ? workingToOriginal[newToOld[v]] : newToOld[v];
+            originalToWorking[toOriginal[v]] = v;
+        }
+        workingToOriginal = toOriginal;
+        workingGraph = reduction.getGraph();
+
+        List<Individual> old = new ArrayList<>(sortedIndividuals());
+        Individual[] remapped = new Individual[old.size()];
+        int genNo = actualGenerations;
+        forEachSlot(pool, 0, remapped.length, slot -> {
+            Individual ind = Individual.fromGenes(workingGraph, reduction.project(old.get(slot).getGeneWords()));
+            ind.calculateFitness(slotRandom(genNo, REMAP_SLOT_BASE + slot), expandPolicy);
+            remapped[slot] = ind;
+        });
+        population = new Population(Arrays.asList(remapped));
+        if (buckets != null) {
+            buckets = new FitnessBuckets(workingGraph.size());
+            buckets.addAll(population.getIndividuals());
+        }
+        diversityMeter = new Diversity(workingGraph.size(), mix64(seed));
+        if (evalCache != null) {
+            evalCache = new EvaluationCache(evaluationCacheBytes);
+        }
+    }
+
+    /** Ghi nhận best mới (theo chỉ số đồ thị đang dùng) kèm điểm trên vết thời gian-đạt-best */
+    private void improveGlobalBest(Individual workingBest) {
+        globalBest = toOriginal(workingBest);
+        noImproveCount = 0;
+        bestTrace.add(new TracePoint((System.nanoTime() - startNanos) / 1_000_000L,
+                actualGenerations, globalBest.getFitness()));
+    }
+
+    /** Hết thời gian hoặc có yêu cầu hủy (gọi được từ các luồng sinh con) */
+    private boolean stopRequested() {
+        return cancelled || System.nanoTime() >= deadlineNanos;
+    }
+
+    /** Nếu cần dừng vì hết thời gian / bị hủy: ghi lý do, đánh dấu kết thúc và trả về true */
+    private boolean checkStopRequest() {
+        if (!stopRequested()) {
+            return false;
+        }
+        earlyStopped = true;
+        stopReason = cancelled ? "Đã hủy" : "Hết thời gian (" + timeLimitMillis + " ms)";
+        finished = true;
+        return true;
+    }
+
+    /** Dừng (best là tối ưu) khi best đạt cận trên ω(G) */
+    private void checkUpperBound() {
+        if (finished || upperBound == null || globalBest.getFitness() < upperBound.getUpperBound()) {
+            return;
+        }
+        earlyStopped = true;
+        stopReason = "Tối ưu: best đạt cận trên " + upperBound.getUpperBound() + " (tô màu / core number + 1)";
+        finished = true;
+    }
+
+    /** Bản sao cá thể theo chỉ số đồ thị gốc */
+    private Individual toOriginal(Individual ind) {
+        if (workingToOriginal == null) {
+            return ind.cloneIndividual();
+        }
+        long[] src = ind.getGeneWords();
+        long[] genes = new long[graph.wordCount()];
+        for (int v = BitWords.nextSetBit(src, 1); v >= 1; v = BitWords.nextSetBit(src, v + 1)) {
+            BitWords.set(genes, workingToOriginal[v]);
+        }
+        return Individual.ofClique(graph, genes);
+    }
+
+    /** Chiếu cá thể theo chỉ số đồ thị gốc sang đồ thị đang dùng (bỏ đỉnh đã bị bóc) rồi đánh giá lại */
+    private Individual toWorking(Individual original, RandomGenerator rng) {
+        if (originalToWorking == null) {
+            return original;
+        }
+        long[] src = original.getGeneWords();
+        long[] genes = new long[workingGraph.wordCount()];
+        for (int v = BitWords.nextSetBit(src, 1); v >= 1; v = BitWords.nextSetBit(src, v + 1)) {
+            if (originalToWorking[v] > 0) {
+                BitWords.set(genes, originalToWorking[v]);
+            }
+        }
+        Individual ind = Individual.fromGenes(workingGraph, genes);
+        ind.calculateFitness(rng, expandPolicy);
+        return ind;
+    }
+
     // ============================================================
     // HÀM HỖ TRỢ
     // ============================================================
 
-    private boolean isIndexInRange(Individual ind) {
-        if (indexMax <= indexMin) return true;
-        double score = ind.getIndexScore();
-        return score >= indexMin && score <= indexMax;
+    /**
+     * Sinh 1 con cho một slot: chọn bố mẹ, lai ghép, đột biến, tính fitness — chỉ dùng rng của slot.
+     * Mỗi lần đánh giá đều tra cache trước (xem evaluate).
+     */
+    private Individual breedChild(SelectionStrategy.Selector parents, RandomGenerator rng, int slot) {
+        // rec != null: đo từng pha (t = mốc bắt đầu pha hiện tại)
+        GaMetrics.Recorder rec = (metrics != null) ? metrics.recorder() : null;
+        long t = (rec != null) ? System.nanoTime() : 0;
+
+        Individual p1 = parents.select(rng);
+        Individual p2 = parents.select(rng);
+        if (rec != null) t = rec.lap(GaMetrics.Phase.SELECTION, t);
+
+        Individual child;
+
+        if (rng.nextDouble() < crossoverRate) {
+            child = crossoverOperator.crossover(p1, p2, rng);
+            if (rec != null) rec.lap(GaMetrics.Phase.CROSSOVER, t);
+            evaluate(child, rng, expandPolicy, 2 * slot, rec);
+        } else {
+            child = p1.cloneIndividual();
+        }
+
+        if (rec != null) t = System.nanoTime();
+        double mr = mutationRateFor(child);
+        mutationOperator.mutate(child, mr, rng);
+        if (rec != null) rec.lap(GaMetrics.Phase.MUTATION, t);
+        evaluate(child, rng, expandPolicy, 2 * slot + 1, rec);
+
+        if (localSearch != null && (!localSearchElitesOnly || child.getFitness() >= localSearchMinFitness)) {
+            if (rec != null) t = System.nanoTime();
+            child.improveWithLocalSearch(localSearch, rng);
+            if (rec != null) rec.lap(GaMetrics.Phase.LOCAL_SEARCH, t);
+        }
+        if (rec != null) rec.add(GaMetrics.Counter.CHILDREN, 1);
+        return child;
+    }
+
+    /**
+     * Tính fitness cho child; nếu bộ gen hiện tại đã có trong cache thì chép kết quả, bỏ qua repair / expand.
+     * Chỉ ghi khóa + trạng thái vào ô cacheIndex của slot — cache được cập nhật sau thế hệ.
+     */
+    private void evaluate(Individual child, RandomGenerator rng, ExpandPolicy policy, int cacheIndex,
+                          GaMetrics.Recorder rec) {
+        if (evalCache != null) {
+            long key = child.getFingerprint();
+            EvaluationCache.Entry cached = evalCache.lookup(key);
+            slotCacheKeys[cacheIndex] = key;
+            if (cached != null) {
+                slotCacheState[cacheIndex] = CACHE_HIT;
+                EvaluationCache.apply(cached, child);
+                return;
+            }
+            slotCacheState[cacheIndex] = CACHE_MISS;
+            child.calculateFitness(rng, policy, rec);
+            slotCacheEntries[cacheIndex] = EvaluationCache.snapshot(child);
+            return;
+        }
+        child.calculateFitness(rng, policy, rec);
+    }
+
+    /** startNanos + limitMillis (đổi ra ns), bão hòa ở Long.MAX_VALUE thay vì tràn số thành mốc trong quá khứ */
+    private static long deadlineAfter(long startNanos, long limitMillis) {
+        if (limitMillis >= Long.MAX_VALUE / 1_000_000L) {
+            return Long.MAX_VALUE;
+        }
+        long limitNanos = limitMillis * 1_000_000L;
+        return (startNanos > Long.MAX_VALUE - limitNanos) ? Long.MAX_VALUE : startNanos + limitNanos;
+    }
+
+    /** Chạy body cho các slot [from, to): tuần tự nếu không có pool, ngược lại chia đều trên pool */
+    private static void forEachSlot(ForkJoinPool pool, int from, int to, IntConsumer body) {
+        if (pool == null) {
+            for (int slot = from; slot < to; slot++) {
+                body.accept(slot);
+            }
+            return;
+        }
+        pool.submit(() -> IntStream.range(from, to).parallel().forEach(body)).join();
+    }
+
+    /** Nguồn ngẫu nhiên riêng cho (thế hệ, slot), chỉ phụ thuộc seed — không phụ thuộc luồng chạy */
+    private SplittableRandom slotRandom(int generation, int slot) {
+        long key = ((long) generation << 32) | (slot & 0xFFFFFFFFL);
+        return new SplittableRandom(mix64(seed ^ mix64(key)));
+    }
+
+    private static long mix64(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 
     private double mutationRateFor(Individual ind) {
@@ -222,45 +1166,44 @@ public class GeneticAlgorithm {
         return maxM - t * (maxM - minM);
     }
 
-    private Individual rankSelection(Population pop) {
-        List<Individual> inds = pop.getIndividuals();
-        int n = inds.size();
-        double sumRank = n * (n + 1) / 2.0;
-        double[] cum = new double[n];
-
-        double acc = 0;
-        for (int i = 0; i < n; i++) {
-            int rank = n - i;
-            acc += rank / sumRank;
-            cum[i] = acc;
+    /**
+     * Dựng bộ chọn bố mẹ cho thế hệ từ quần thể đã sắp xếp. Nếu có khoảng [indexMin, indexMax] thì
+     * chỉ chọn trong các cá thể có indexScore thuộc khoảng đó (lọc sẵn 1 lần, không thử lại từng lần chọn);
+     * không có cá thể nào thỏa thì chọn trong cả quần thể. Khoảng phủ cả [0, MAX_INDEX_SCORE] không lọc gì.
+     */
+    SelectionStrategy.Selector prepareSelector(List<Individual> inds) {
+        int[] positions = null;
+        if (indexFilter) {
+            int[] inRange = new int[inds.size()];
+            int count = 0;
+            for (int i = 0; i < inds.size(); i++) {
+                double score = inds.get(i).getIndexScore();
+                if (score >= indexMin && score <= indexMax) {
+                    inRange[count++] = i;
+                }
+            }
+            if (count > 0) {
+                positions = Arrays.copyOf(inRange, count);
+            }
         }
+        return selectionStrategy.prepare(inds, positions);
+    }
 
-        double r = rand.nextDouble();
-        for (int i = 0; i < n; i++) {
-            if (r <= cum[i]) return inds.get(i);
-        }
-        return inds.get(n - 1);
+    /** Tỉ lệ bộ gen khác nhau trong quần thể (so sánh theo fingerprint) */
+    double computeDiversity(Population pop) {
+        return meter().uniqueRatio(pop.getIndividuals());
     }
 
-    private Individual selectParentWithIndex(Population pop) {
-        Individual last = null;
-        for (int i = 0; i < 10; i++) {
-            last = rankSelection(pop);
-            if (isIndexInRange(last)) return last;
-        }
-        return last != null ? last : rankSelection(pop);
+    /** Khoảng cách Hamming trung bình giữa các cá thể, chuẩn hóa theo n */
+    double computeMeanHamming(Population pop) {
+        return meter().meanHamming(pop.getIndividuals());
     }
 
-    private double computeDiversity(Population pop) {
-        Set<String> uniq = new HashSet<>();
-        for (Individual ind : pop.getIndividuals()) {
-            StringBuilder sb = new StringBuilder();
-            for (int i = 1; i <= graph.size(); i++) {
-                sb.append(ind.getGenes().get(i) ? '1' : '0');
-            }
-            uniq.add(sb.toString());
+    private Diversity meter() {
+        if (diversityMeter == null) {
+            diversityMeter = new Diversity(graph.size(), mix64(seed));
         }
-        return (double) uniq.size() / pop.getIndividuals().size();
+        return diversityMeter;
     }
 
     // ============================================================
@@ -268,12 +1211,40 @@ public class GeneticAlgorithm {
     // ============================================================
 
     public double getExecutionTime() { return executionTimeSec; }
+    /**
+     * Best toàn cục hiện tại (theo chỉ số đồ thị gốc), đọc được từ luồng khác trong lúc run() đang chạy.
+     * null khi quần thể ban đầu chưa khởi tạo xong.
+     */
+    public Individual getBestSoFar() {
+        Individual best = globalBest;
+        return (best != null) ? best.cloneIndividual() : null;
+    }
+    /** Fitness của best toàn cục hiện tại (không clone; 0 khi chưa khởi tạo) */
+    int getBestFitnessSoFar() {
+        Individual best = globalBest;
+        return (best != null) ? best.getFitness() : 0;
+    }
+    /** Các lần best được cải thiện (thời điểm ms, thế hệ, fitness), theo thứ tự thời gian */
+    public List<TracePoint> getTimeToBestTrace() { return bestTrace; }
     public int getActualGenerations() { return actualGenerations; }
     public double getFinalDiversity() { return finalDiversity; }
+    public double getFinalMeanHamming() { return finalMeanHamming; }
+    /** Tổng số lần trúng / trượt cache đánh giá của lần chạy gần nhất (0 nếu tắt cache) */
+    public long getCacheHits() { return evalCache != null ? evalCache.getHits() : 0; }
+    public long getCacheMisses() { return evalCache != null ? evalCache.getMisses() : 0; }
+    /** Tổng số đỉnh đã bị bóc bởi rút gọn k-core và số đỉnh còn lại của đồ thị đang dùng */
+    public int getRemovedVertices() { return removedVertices; }
+    /** Cận trên ω(G) của lần chạy gần nhất, -1 nếu tắt */
+    public int getUpperBound() { return (upperBound != null) ? upperBound.getUpperBound() : -1; }
+    public int getWorkingGraphSize() { return graph.size() - removedVertices; }
     public boolean isEarlyStopped() { return earlyStopped; }
     public String getStopReason() { return stopReason; }
+    public long getSeed() { return seed; }
+    public int getThreads() { return threads; }
 
-    public List<Integer> getGenHistory() { return genHistory; }
-    public List<Integer> getBestFitnessHistory() { return bestFitnessHistory; }
-    public List<Integer> getGenTimeMsHistory() { return genTimeMsHistory; }
+    public IntSeries getGenHistory() { return genHistory; }
+    public IntSeries getBestFitnessHistory() { return bestFitnessHistory; }
+    public IntSeries getGenTimeMsHistory() { return genTimeMsHistory; }
+    /** Thời gian từng thế hệ theo nano giây (không làm tròn như getGenTimeMsHistory) */
+    public LongSeries getGenTimeNanosHistory() { return genTimeNanosHistory; }
 }
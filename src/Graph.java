@@ -1,34 +1,47 @@
-public class Graph {
-    private final int n;
-    private final boolean[][] adj;
-
-    public Graph(int n) {
-        if(n <= 0) {
-                throw new IllegalArgumentException("Number of vertices must be positive.");
-            }
-        this.n = n;
-        // Tạo ma trận kề với kích thước n+1 để đỉnh chạy từ 1 đến n
-        this.adj = new boolean[n + 1][n + 1];
-    }
-
-    public int size() {
-        return n;
-    }
-
-    public void addEdge(int u, int v) {
-        // Sửa: đỉnh bắt đầu từ 1 đến n
-        if (u < 1 || u > n || v < 1 || v > n) {
-            throw new IllegalArgumentException("Vertex index out of bounds: " + u + ", " + v + " (valid: 1-" + n + ")");
-        }
-        adj[u][v] = adj[v][u] = true;
-    }
-
-    public boolean isEdge(int u, int v) {
-        // Sửa: đỉnh bắt đầu từ 1 đến n
-        if (u < 1 || u > n || v < 1 || v > n) {
-            throw new IllegalArgumentException("Vertex index out of bounds: " + u + ", " + v + " (valid: 1-" + n + ")");
-        }
-        return adj[u][v];
-    }
+/**
+ * Giao diện chung của đồ thị vô hướng, đỉnh chạy từ 1 đến n.
+ *
+ * Tập đỉnh truyền vào các thao tác tập hợp là long[] theo quy ước BitWords (bit v <=> đỉnh v),
+ * có thể ngắn hơn wordCount(). Hai cài đặt:
+ *  - DenseGraph: hàng kề đóng gói, thao tác 64 đỉnh / lệnh,
+ *  - SparseGraph: CSR (danh sách kề đã sắp xếp), bộ nhớ O(n + m).
+ * GraphBuilder chọn cài đặt phù hợp theo n và mật độ.
+ */
+public interface Graph {
 
+    int size();
+
+    /** Số word long[] cần cho một tập đỉnh 1..n (dùng để cấp phát tập ứng viên / gen) */
+    int wordCount();
+
+    int degree(int v);
+
+    /** Số cạnh (vô hướng) hiện có */
+    long edgeCount();
+
+    boolean isEdge(int u, int v);
+
+    /** Láng giềng nhỏ nhất của v có chỉ số >= from, hoặc -1 nếu không còn (duyệt tăng dần) */
+    int nextNeighbor(int v, int from);
+
+    /** out = N(v) */
+    void copyNeighborhood(int v, long[] out);
+
+    /** out = N(v) ∩ set */
+    void andNeighborhood(int v, long[] set, long[] out);
+
+    /** set = set ∩ N(v) (thu hẹp tại chỗ) */
+    void retainNeighborhood(int v, long[] set);
+
+    /** |N(v) ∩ set| — số láng giềng của v nằm trong set */
+    int countCommonNeighbors(int v, long[] set);
+
+    /**
+     * Ghi các đỉnh của N(v) ∩ set vào out theo thứ tự tăng dần, trả về số đỉnh đã ghi.
+     * out phải đủ chỗ (|set| phần tử là đủ). Chi phí O(số word) với DenseGraph, O(deg(v)) với SparseGraph.
+     */
+    int listCommonNeighbors(int v, long[] set, int[] out);
+
+    /** Kiểm tra set \ {v} ⊆ N(v), tức v nối với mọi đỉnh khác trong set */
+    boolean isSubsetOfNeighborhood(long[] set, int v);
 }
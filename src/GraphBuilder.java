@@ -0,0 +1,186 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gom danh sách cạnh rồi dựng Graph, tự chọn cài đặt:
+ *  - DenseGraph (hàng kề đóng gói) khi ma trận bit vừa bộ nhớ và đồ thị đủ dày / đủ nhỏ,
+ *  - SparseGraph (CSR) khi ngược lại, ví dụ đồ thị mạng xã hội 200k đỉnh với vài triệu cạnh.
+ * Cạnh trùng được gộp; self-loop và đỉnh ngoài 1..n ném IllegalArgumentException.
+ */
+public final class GraphBuilder {
+
+    /** Bộ nhớ tối đa cho ma trận bit của DenseGraph */
+    static final long DENSE_MAX_BYTES = 256L << 20;
+    /** Đồ thị có số đỉnh tới ngưỡng này luôn dùng DenseGraph (nếu vừa bộ nhớ) */
+    static final int DENSE_ALWAYS_MAX_N = 8192;
+    /** Mật độ tối thiểu để chọn DenseGraph khi n lớn hơn ngưỡng trên */
+    static final double DENSE_MIN_DENSITY = 0.01;
+
+    public enum Representation { AUTO, DENSE, SPARSE }
+
+    private final int n;
+    // Các khối cặp cạnh (u0 v0 u1 v1 ...) cùng độ dài dùng được của mỗi khối
+    private final List<int[]> blocks = new ArrayList<>();
+    private final List<Integer> blockLengths = new ArrayList<>();
+    private int[] current = new int[256];
+    private int currentSize;
+    private long edges;
+
+    public GraphBuilder(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Number of vertices must be positive.");
+        }
+        this.n = n;
+    }
+
+    public GraphBuilder addEdge(int u, int v) {
+        checkEdge(u, v);
+        if (currentSize + 2 > current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[currentSize++] = u;
+        current[currentSize++] = v;
+        edges++;
+        return this;
+    }
+
+    /** Thêm một khối cặp cạnh pairs[0..length) đã có sẵn (không sao chép — không được sửa sau đó) */
+    public GraphBuilder addEdgePairs(int[] pairs, int length) {
+        for (int i = 0; i < length; i += 2) {
+            checkEdge(pairs[i], pairs[i + 1]);
+        }
+        blocks.add(pairs);
+        blockLengths.add(length);
+        edges += length / 2;
+        return this;
+    }
+
+    /** Cài đặt mà build() sẽ chọn với số cạnh hiện có */
+    public Representation chooseRepresentation() {
+        long denseBytes = (long) (n + 1) * BitWords.wordsFor(n) * 8;
+        if (denseBytes > DENSE_MAX_BYTES) {
+            return Representation.SPARSE;
+        }
+        double density = (n > 1) ? (2.0 * edges) / ((double) n * (n - 1)) : 1.0;
+        return (n <= DENSE_ALWAYS_MAX_N || density >= DENSE_MIN_DENSITY)
+                ? Representation.DENSE : Representation.SPARSE;
+    }
+
+    /**
+     * Đồ thị con cảm sinh trên các đỉnh newToOld[1..m] của graph, đỉnh newToOld[i] mang chỉ số mới i
+     * (oldToNew[v] = 0 nghĩa là bỏ v). Dùng cho rút gọn k-core và sắp xếp lại đỉnh.
+     */
+    public static Graph relabel(Graph graph, int[] newToOld, int[] oldToNew) {
+        int m = newToOld.length - 1;
+        GraphBuilder builder = new GraphBuilder(m);
+        for (int nu = 1; nu <= m; nu++) {
+            int u = newToOld[nu];
+            for (int v = graph.nextNeighbor(u, u + 1); v >= 1; v = graph.nextNeighbor(u, v + 1)) {
+                if (oldToNew[v] > 0) {
+                    builder.addEdge(nu, oldToNew[v]);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    public Graph build() {
+        return build(Representation.AUTO);
+    }
+
+    public Graph build(Representation representation) {
+        if (representation == Representation.AUTO) {
+            representation = chooseRepresentation();
+        }
+        flushCurrent();
+        return (representation == Representation.DENSE) ? buildDense() : buildSparse();
+    }
+
+    private DenseGraph buildDense() {
+        DenseGraph g = new DenseGraph(n);
+        for (int b = 0; b < blocks.size(); b++) {
+            int[] pairs = blocks.get(b);
+            int length = blockLengths.get(b);
+            for (int i = 0; i < length; i += 2) {
+                g.addEdge(pairs[i], pairs[i + 1]);
+            }
+        }
+        return g;
+    }
+
+    private SparseGraph buildSparse() {
+        // ===== Đếm bậc (mỗi cạnh xuất hiện ở cả 2 đầu) =====
+        int[] offsets = new int[n + 2];
+        for (int b = 0; b < blocks.size(); b++) {
+            int[] pairs = blocks.get(b);
+            int length = blockLengths.get(b);
+            for (int i = 0; i < length; i += 2) {
+                offsets[pairs[i] + 1]++;
+                offsets[pairs[i + 1] + 1]++;
+            }
+        }
+        long total = 0;
+        for (int v = 1; v <= n + 1; v++) {
+            total += offsets[v];
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Too many edges for CSR representation: " + edges);
+            }
+        }
+        // offsets[v + 1] đang là deg(v) => cộng dồn thành vị trí bắt đầu
+        for (int v = 1; v <= n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        // ===== Điền danh sách kề =====
+        int[] adj = new int[offsets[n + 1]];
+        int[] fill = Arrays.copyOf(offsets, n + 2);
+        for (int b = 0; b < blocks.size(); b++) {
+            int[] pairs = blocks.get(b);
+            int length = blockLengths.get(b);
+            for (int i = 0; i < length; i += 2) {
+                int u = pairs[i];
+                int v = pairs[i + 1];
+                adj[fill[u]++] = v;
+                adj[fill[v]++] = u;
+            }
+        }
+
+        // ===== Sắp xếp từng danh sách và loại cạnh trùng (nén tại chỗ) =====
+        int write = 0;
+        int start = offsets[1];
+        for (int v = 1; v <= n; v++) {
+            int end = offsets[v + 1];
+            Arrays.sort(adj, start, end);
+            offsets[v] = write;
+            int prev = -1;
+            for (int i = start; i < end; i++) {
+                if (adj[i] != prev) {
+                    adj[write++] = adj[i];
+                    prev = adj[i];
+                }
+            }
+            start = end;
+        }
+        offsets[n + 1] = write;
+        return new SparseGraph(n, offsets, (write == adj.length) ? adj : Arrays.copyOf(adj, write));
+    }
+
+    private void flushCurrent() {
+        if (currentSize > 0) {
+            blocks.add(current);
+            blockLengths.add(currentSize);
+            current = new int[256];
+            currentSize = 0;
+        }
+    }
+
+    private void checkEdge(int u, int v) {
+        if (u < 1 || u > n || v < 1 || v > n) {
+            throw new IllegalArgumentException("Vertex index out of bounds: " + u + ", " + v + " (valid: 1-" + n + ")");
+        }
+        if (u == v) {
+            throw new IllegalArgumentException("Self-loop is not allowed: " + u);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Đọc đồ thị từ file danh sách cạnh bằng memory-map, phân tích số nguyên trực tiếp
+ * trên byte (không tạo String / String[] cho mỗi cạnh).
+ *
+ * Định dạng file (giống Main trước đây):
+ *   dòng 1: n (số đỉnh, >= 1)
+ *   dòng 2: m (số cạnh, > 0)
+ *   m dòng tiếp theo: "u v"
+ *   các dòng còn lại (tham số GA...) được trả về nguyên văn trong Result.getTrailingLines().
+ *
+ * Cạnh nằm ngoài 1..n, self-loop, dòng không hợp lệ được bỏ qua kèm cảnh báo; thiếu dòng cạnh
+ * thì dừng đọc cạnh kèm cảnh báo. Lỗi ở phần đầu file (n, m) ném IllegalArgumentException.
+ *
+ * Cài đặt Graph (DenseGraph / SparseGraph) do GraphBuilder chọn theo n và mật độ, trừ khi chỉ định.
+ *
+ * File lớn (>= PARALLEL_THRESHOLD_BYTES) được chia thành các khúc tại ranh giới dòng (từ dòng cạnh đầu tiên
+ * tới cuối file, không quét trước để tìm dòng cạnh cuối) và phân tích song song vào bộ đệm cạnh riêng của
+ * từng luồng; sau đó cộng số dòng các khúc theo thứ tự, cắt bỏ phần sau dòng cạnh thứ m rồi mới dựng Graph.
+ * Giới hạn: một lần map tối đa 2 GB.
+ */
+public final class GraphLoader {
+
+    static final long PARALLEL_THRESHOLD_BYTES = 4L << 20;
+    // Mỗi khúc ghi 1 mốc mỗi MARK_EVERY_LINES dòng => cắt đuôi chỉ phải phân tích lại < MARK_EVERY_LINES dòng
+    private static final int MARK_EVERY_LINES = 1024;
+    private static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    private GraphLoader() {}
+
+    /** Kết quả đọc file: đồ thị, thống kê và các dòng sau phần cạnh */
+    public static final class Result {
+        private final Graph graph;
+        private final int declaredEdges;
+        private final int edgeLines;
+        private final int addedEdges;
+        private final List<String> warnings;
+        private final List<String> trailingLines;
+
+        Result(Graph graph, int declaredEdges, int edgeLines, int addedEdges,
+               List<String> warnings, List<String> trailingLines) {
+            this.graph = graph;
+            this.declaredEdges = declaredEdges;
+            this.edgeLines = edgeLines;
+            this.addedEdges = addedEdges;
+            this.warnings = warnings;
+            this.trailingLines = trailingLines;
+        }
+
+        public Graph getGraph() { return graph; }
+        /** m khai báo ở dòng 2 */
+        public int getDeclaredEdges() { return declaredEdges; }
+        /** Số dòng cạnh thực sự có trong file (< m nếu file thiếu dòng) */
+        public int getEdgeLines() { return edgeLines; }
+        /** Số cạnh hợp lệ đã nạp vào Graph */
+        public int getAddedEdges() { return addedEdges; }
+        /** Cảnh báo theo đúng thứ tự dòng trong file */
+        public List<String> getWarnings() { return warnings; }
+        public List<String> getTrailingLines() { return trailingLines; }
+    }
+
+    public static Result load(String path) throws IOException {
+        return load(Path.of(path), Runtime.getRuntime().availableProcessors());
+    }
+
+    public static Result load(Path path, int threads) throws IOException {
+        return load(path, threads, GraphBuilder.Representation.AUTO);
+    }
+
+    public static Result load(Path path, int threads, GraphBuilder.Representation representation) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File quá lớn để map một lần (> 2 GB): " + path);
+            }
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return parse(buf, (int) size, threads, representation);
+        }
+    }
+
+    // ============================================================
+    // PHÂN TÍCH
+    // ============================================================
+
+    private static Result parse(MappedByteBuffer buf, int size, int threads,
+                                GraphBuilder.Representation representation) {
+        // ===== Dòng 1, 2: n và m =====
+        int lineStart = 0;
+        if (size == 0) {
+            throw new IllegalArgumentException("File input không có dữ liệu");
+        }
+        int lineEnd = lineEnd(buf, lineStart, size);
+        int n = parseHeader(buf, lineStart, lineEnd, "số đỉnh");
+        if (n < 1) {
+            throw new IllegalArgumentException("Số đỉnh phải >= 1");
+        }
+
+        lineStart = nextLine(lineEnd, size);
+        if (lineStart >= size) {
+            throw new IllegalArgumentException("Thiếu số cạnh trong file");
+        }
+        lineEnd = lineEnd(buf, lineStart, size);
+        int m = parseHeader(buf, lineStart, lineEnd, "số cạnh");
+        if (m <= 0) {
+            throw new IllegalArgumentException("Số cạnh phải > 0");
+        }
+
+        // ===== Phân tích cạnh: 1 khúc hoặc nhiều khúc song song tới cuối file =====
+        int edgesStart = nextLine(lineEnd, size);
+        int chunks = (size - edgesStart >= PARALLEL_THRESHOLD_BYTES) ? Math.max(1, threads) : 1;
+        int[] bounds = chunkBounds(buf, edgesStart, size, chunks);
+        EdgeChunk[] parsed = new EdgeChunk[bounds.length - 1];
+
+        if (parsed.length == 1) {
+            parsed[0] = parseChunk(buf, bounds[0], bounds[1], n, m);
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(parsed.length);
+            try {
+                List<Future<EdgeChunk>> futures = new ArrayList<>();
+                for (int c = 0; c < parsed.length; c++) {
+                    int from = bounds[c];
+                    int to = bounds[c + 1];
+                    // chỉ dùng get(index) tuyệt đối nên các luồng đọc chung buffer an toàn
+                    futures.add(executor.submit(() -> parseChunk(buf, from, to, n, m)));
+                }
+                for (int c = 0; c < parsed.length; c++) {
+                    parsed[c] = futures.get(c).get();
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Lỗi phân tích song song: " + e.getMessage(), e);
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        // ===== Chỉ giữ m dòng cạnh đầu tiên: cắt khúc chứa dòng thứ m, bỏ các khúc sau nó =====
+        int edgeLines = 0;
+        int edgesEnd = edgesStart;
+        for (int c = 0; c < parsed.length; c++) {
+            if (edgeLines >= m) {
+                parsed[c] = null;
+                continue;
+            }
+            if (edgeLines + parsed[c].lines > m) {
+                truncate(buf, parsed[c], m - edgeLines, bounds[c + 1], n);
+            }
+            edgeLines += parsed[c].lines;
+            edgesEnd = parsed[c].end;
+        }
+
+        // ===== Dựng Graph (dense / CSR tùy n và mật độ) + gộp cảnh báo theo thứ tự file =====
+        GraphBuilder builder = new GraphBuilder(n);
+        List<String> warnings = new ArrayList<>();
+        int added = 0;
+        for (EdgeChunk chunk : parsed) {
+            if (chunk == null) continue;
+            builder.addEdgePairs(chunk.edges, chunk.size);
+            added += chunk.size / 2;
+            warnings.addAll(chunk.warnings);
+        }
+        Graph g = builder.build(representation);
+        if (edgeLines < m) {
+            warnings.add("Thiếu cạnh thứ " + (edgeLines + 1));
+        }
+
+        // ===== Các dòng còn lại (tham số GA) =====
+        List<String> trailing = new ArrayList<>();
+        int pos = edgesEnd;
+        while (pos < size) {
+            int end = lineEnd(buf, pos, size);
+            trailing.add(text(buf, pos, end));
+            pos = nextLine(end, size);
+        }
+
+        return new Result(g, m, edgeLines, added, warnings, trailing);
+    }
+
+    /** Các cạnh hợp lệ của một khúc (u0 v0 u1 v1 ...) cùng cảnh báo của khúc đó */
+    private static final class EdgeChunk {
+        int[] edges = new int[256];
+        int size;
+        final List<String> warnings = new ArrayList<>();
+        // Số dòng đã phân tích và vị trí ngay sau dòng cuối cùng đó
+        int lines;
+        int end;
+        // Mốc tại đầu dòng thứ k * MARK_EVERY_LINES: (vị trí, size, số cảnh báo)
+        int[] marks = new int[48];
+        int markCount;
+
+        void mark(int pos) {
+            if (3 * markCount + 3 > marks.length) {
+                int[] grown = new int[marks.length * 2];
+                System.arraycopy(marks, 0, grown, 0, 3 * markCount);
+                marks = grown;
+            }
+            marks[3 * markCount] = pos;
+            marks[3 * markCount + 1] = size;
+            marks[3 * markCount + 2] = warnings.size();
+            markCount++;
+        }
+
+        void add(int u, int v) {
+            if (size + 2 > edges.length) {
+                int[] grown = new int[edges.length * 2];
+                System.arraycopy(edges, 0, grown, 0, size);
+                edges = grown;
+            }
+            edges[size++] = u;
+            edges[size++] = v;
+        }
+    }
+
+    /** Phân tích tối đa maxLines dòng của [from, to) */
+    private static EdgeChunk parseChunk(MappedByteBuffer buf, int from, int to, int n, int maxLines) {
+        EdgeChunk chunk = new EdgeChunk();
+        parseLines(buf, chunk, from, to, n, maxLines, true);
+        return chunk;
+    }
+
+    /**
+     * Chỉ giữ keepLines dòng đầu (keepLines < chunk.lines): quay về mốc gần nhất trước dòng đó
+     * rồi phân tích lại phần lẻ (< MARK_EVERY_LINES dòng).
+     */
+    private static void truncate(MappedByteBuffer buf, EdgeChunk chunk, int keepLines, int to, int n) {
+        int mark = keepLines / MARK_EVERY_LINES;
+        chunk.size = chunk.marks[3 * mark + 1];
+        chunk.warnings.subList(chunk.marks[3 * mark + 2], chunk.warnings.size()).clear();
+        chunk.lines = mark * MARK_EVERY_LINES;
+        parseLines(buf, chunk, chunk.marks[3 * mark], to, n, keepLines - chunk.lines, false);
+    }
+
+    /** Phân tích tối đa maxLines dòng bắt đầu từ pos (trong giới hạn to), nối vào chunk */
+    private static void parseLines(MappedByteBuffer buf, EdgeChunk chunk, int pos, int to, int n,
+                                   int maxLines, boolean marks) {
+        int parsedLines = 0;
+        while (pos < to && parsedLines < maxLines) {
+            if (marks && chunk.lines % MARK_EVERY_LINES == 0) {
+                chunk.mark(pos);
+            }
+            int end = lineEnd(buf, pos, to);
+
+            // 2 token đầu tiên của dòng; token thừa phía sau được bỏ qua như trước
+            int uStart = skipBlanks(buf, pos, end);
+            int uEnd = skipToken(buf, uStart, end);
+            int vStart = skipBlanks(buf, uEnd, end);
+            int vEnd = skipToken(buf, vStart, end);
+            long u = parseInt(buf, uStart, uEnd);
+            long v = parseInt(buf, vStart, vEnd);
+
+            if (u == NOT_AN_INT || v == NOT_AN_INT) {
+                chunk.warnings.add("Dòng không hợp lệ: " + text(buf, pos, end) + " (bỏ qua)");
+            } else if (u < 1 || u > n || v < 1 || v > n) {
+                chunk.warnings.add("Cạnh " + u + " " + v + " nằm ngoài phạm vi 1.." + n + " (bỏ qua)");
+            } else if (u == v) {
+                chunk.warnings.add("Bỏ qua self-loop: " + u + " " + v);
+            } else {
+                chunk.add((int) u, (int) v);
+            }
+
+            pos = nextLine(end, to);
+            chunk.lines++;
+            parsedLines++;
+        }
+        chunk.end = pos;
+    }
+
+    /** Ranh giới các khúc: chia đều theo byte rồi đẩy mỗi điểm cắt tới đầu dòng kế tiếp */
+    private static int[] chunkBounds(MappedByteBuffer buf, int from, int to, int chunks) {
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(from);
+        long span = to - from;
+        for (int c = 1; c < chunks; c++) {
+            int cut = (int) (from + span * c / chunks);
+            cut = nextLine(lineEnd(buf, Math.max(cut - 1, from), to), to);
+            if (cut > bounds.get(bounds.size() - 1) && cut < to) {
+                bounds.add(cut);
+            }
+        }
+        bounds.add(to);
+        int[] out = new int[bounds.size()];
+        for (int i = 0; i < out.length; i++) out[i] = bounds.get(i);
+        return out;
+    }
+
+    // ============================================================
+    // HÀM HỖ TRỢ BYTE
+    // ============================================================
+
+    /** Vị trí ký tự '\n' kết thúc dòng bắt đầu tại pos (hoặc limit nếu là dòng cuối) */
+    private static int lineEnd(MappedByteBuffer buf, int pos, int limit) {
+        while (pos < limit && buf.get(pos) != '\n') pos++;
+        return pos;
+    }
+
+    private static int nextLine(int lineEnd, int limit) {
+        return Math.min(lineEnd + 1, limit);
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static int skipBlanks(MappedByteBuffer buf, int pos, int end) {
+        while (pos < end && isBlank(buf.get(pos))) pos++;
+        return pos;
+    }
+
+    private static int skipToken(MappedByteBuffer buf, int pos, int end) {
+        while (pos < end && !isBlank(buf.get(pos))) pos++;
+        return pos;
+    }
+
+    /** Giá trị của token số nguyên (có thể có dấu) trong [start, end); NOT_AN_INT nếu không hợp lệ */
+    private static long parseInt(MappedByteBuffer buf, int start, int end) {
+        if (start >= end) return NOT_AN_INT;
+        boolean negative = false;
+        byte first = buf.get(start);
+        if (first == '-' || first == '+') {
+            negative = (first == '-');
+            start++;
+            if (start >= end) return NOT_AN_INT;
+        }
+        long value = 0;
+        for (int pos = start; pos < end; pos++) {
+            byte b = buf.get(pos);
+            if (b < '0' || b > '9') return NOT_AN_INT;
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE + 1L) return NOT_AN_INT;
+        }
+        value = negative ? -value : value;
+        return (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) ? NOT_AN_INT : value;
+    }
+
+    private static int parseHeader(MappedByteBuffer buf, int start, int end, String what) {
+        String s = text(buf, start, end).trim();
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Không đọc được " + what + ": \"" + s + "\"");
+        }
+    }
+
+    private static String text(MappedByteBuffer buf, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = buf.get(start + i);
+        return new String(bytes, StandardCharsets.UTF_8).replace("\r", "");
+    }
+}
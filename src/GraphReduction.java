@@ -0,0 +1,88 @@
+/**
+ * Rút gọn k-core: một clique có kích thước > best chỉ chứa đỉnh có bậc >= best, nên có thể
+ * liên tục bóc các đỉnh bậc < best (cập nhật bậc của láng giềng) đến khi còn lại best-core.
+ * Các đỉnh còn lại được đánh số lại liên tiếp 1..m để gen / tập ứng viên co lại theo bài toán.
+ *
+ * Chi phí O(n + m) cho bóc lõi, đồ thị con dựng qua GraphBuilder.relabel (tự chọn dense/sparse).
+ */
+public final class GraphReduction {
+    private final Graph graph;
+    private final int[] oldToNew;
+    private final int[] newToOld;
+    private final int removed;
+
+    private GraphReduction(Graph graph, int[] oldToNew, int[] newToOld, int removed) {
+        this.graph = graph;
+        this.oldToNew = oldToNew;
+        this.newToOld = newToOld;
+        this.removed = removed;
+    }
+
+    /**
+     * Giữ lại minDegree-core của graph (mọi đỉnh còn lại có >= minDegree láng giềng còn lại).
+     * Không bóc được đỉnh nào thì trả về chính graph với ánh xạ đồng nhất; lõi rỗng thì getGraph() == null.
+     */
+    public static GraphReduction reduce(Graph graph, int minDegree) {
+        int n = graph.size();
+        int[] degree = new int[n + 1];
+        boolean[] removedFlag = new boolean[n + 1];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int v = 1; v <= n; v++) {
+            degree[v] = graph.degree(v);
+            if (degree[v] < minDegree) {
+                removedFlag[v] = true;
+                queue[tail++] = v;
+            }
+        }
+        while (head < tail) {
+            int v = queue[head++];
+            for (int u = graph.nextNeighbor(v, 1); u >= 1; u = graph.nextNeighbor(v, u + 1)) {
+                if (!removedFlag[u] && --degree[u] < minDegree) {
+                    removedFlag[u] = true;
+                    queue[tail++] = u;
+                }
+            }
+        }
+
+        int removed = tail;
+        int m = n - removed;
+        int[] oldToNew = new int[n + 1];
+        int[] newToOld = new int[m + 1];
+        int next = 0;
+        for (int v = 1; v <= n; v++) {
+            if (!removedFlag[v]) {
+                oldToNew[v] = ++next;
+                newToOld[next] = v;
+            }
+        }
+        if (removed == 0) {
+            return new GraphReduction(graph, oldToNew, newToOld, 0);
+        }
+        if (m == 0) {
+            return new GraphReduction(null, oldToNew, newToOld, removed);
+        }
+
+        return new GraphReduction(GraphBuilder.relabel(graph, newToOld, oldToNew), oldToNew, newToOld, removed);
+    }
+
+    /** Chép các đỉnh được giữ lại của genes (theo chỉ số cũ) sang mảng gen theo chỉ số mới */
+    public long[] project(long[] genes) {
+        long[] out = new long[graph.wordCount()];
+        for (int v = BitWords.nextSetBit(genes, 1); v >= 1 && v < oldToNew.length; v = BitWords.nextSetBit(genes, v + 1)) {
+            if (oldToNew[v] > 0) {
+                BitWords.set(out, oldToNew[v]);
+            }
+        }
+        return out;
+    }
+
+    /** Đồ thị con sau rút gọn (null nếu không còn đỉnh nào) */
+    public Graph getGraph() { return graph; }
+    /** Chỉ số mới của đỉnh cũ v (0 = đã bị bóc) */
+    public int[] getOldToNew() { return oldToNew; }
+    /** Chỉ số cũ của đỉnh mới v (phần tử 0 không dùng) */
+    public int[] getNewToOld() { return newToOld; }
+    public int getRemoved() { return removed; }
+}
@@ -1,48 +1,85 @@
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class Individual {
-    // Chuỗi gen: mỗi bit đại diện cho một đỉnh (1..n)
-    private final BitSet genes;
+    /** Giá trị lớn nhất của indexScore: density <= 1 và k >= 2 nên density / k <= 1/2 (k <= 1 thì bằng 0) */
+    public static final double MAX_INDEX_SCORE = 0.5;
+
+    // Chuỗi gen: mỗi bit đại diện cho một đỉnh (1..n), đóng gói theo word 64 bit (xem BitWords)
+    private final long[] genes;
     // Độ thích nghi (fitness): số đỉnh trong clique sau khi sửa
     private int fitness;
     // Chỉ mục đánh giá cấu trúc (index) dựa trên mật độ liên kết bên trong
     private double indexScore;
+    // Dấu vân tay Zobrist của chuỗi gen (xem Diversity), cập nhật khi mutate / calculateFitness
+    private long fingerprint;
     // Đồ thị tương ứng
     private final Graph graph;
 
     // ====== CONSTRUCTOR ======
 
     /**
-     * Khởi tạo cá thể với gen nhị phân ngẫu nhiên (0/1) bằng Random bên ngoài truyền vào.
+     * Khởi tạo cá thể với gen nhị phân ngẫu nhiên (0/1) bằng nguồn ngẫu nhiên bên ngoài truyền vào
+     * (java.util.Random, SplittableRandom... đều dùng được qua RandomGenerator).
      * Mỗi bit i (1..n): rand.nextDouble() > 0.5 => 1, ngược lại 0.
      * Sau đó tính luôn fitness + index.
      */
-    public Individual(Graph graph, Random rand) {
+    public Individual(Graph graph, RandomGenerator rand) {
+        this(graph, rand, ExpandPolicy.RANDOM);
+    }
+
+    /** Như trên nhưng chọn chiến lược mở rộng clique khi tính fitness */
+    public Individual(Graph graph, RandomGenerator rand, ExpandPolicy expandPolicy) {
         this.graph = graph;
-        this.genes = new BitSet(graph.size() + 1);
+        this.genes = new long[graph.wordCount()];
         for (int i = 1; i <= graph.size(); i++) {
-            genes.set(i, rand.nextDouble() > 0.5);
+            if (rand.nextDouble() > 0.5) {
+                BitWords.set(genes, i);
+            }
         }
-        calculateFitness(rand);
+        calculateFitness(rand, expandPolicy);
     }
 
     /**
-     * Constructor riêng để clone / tạo offspring với BitSet đã được chuẩn bị sẵn.
+     * Constructor riêng để clone / tạo offspring với mảng gen đã được chuẩn bị sẵn.
      */
-    private Individual(Graph graph, BitSet genes, int fitness, double indexScore) {
+    private Individual(Graph graph, long[] genes, int fitness, double indexScore, long fingerprint) {
         this.graph = graph;
         this.genes = genes;
         this.fitness = fitness;
         this.indexScore = indexScore;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Tạo cá thể từ mảng gen có sẵn (độ dài graph.wordCount()) mà chưa tính fitness.
+     */
+    static Individual fromGenes(Graph graph, long[] genes) {
+        return new Individual(graph, genes, 0, 0.0, Diversity.fingerprint(genes));
+    }
+
+    /** Cá thể đã đánh giá từ một clique có sẵn (genes phải là clique của graph): không sửa / mở rộng */
+    static Individual ofClique(Graph graph, long[] genes) {
+        Individual ind = new Individual(graph, genes, BitWords.cardinality(genes), 0.0, Diversity.fingerprint(genes));
+        ind.calculateIndex();
+        return ind;
+    }
+
+    /** Cá thể đã đánh giá với kết quả có sẵn (khôi phục từ checkpoint) */
+    static Individual ofEvaluated(Graph graph, long[] genes, int fitness, double indexScore, long fingerprint) {
+        return new Individual(graph, genes, fitness, indexScore, fingerprint);
     }
 
     // ====== GETTER ======
 
+    /** Bản sao chuỗi gen dưới dạng BitSet (không chia sẻ bộ nhớ với cá thể) */
     public BitSet getGenes() {
+        return BitSet.valueOf(genes);
+    }
+
+    /** Mảng word của chuỗi gen (chỉ đọc, không được sửa từ bên ngoài) */
+    public long[] getGeneWords() {
         return genes;
     }
 
@@ -54,47 +91,72 @@ public class Individual {
         return indexScore;
     }
 
+    /** Dấu vân tay 64 bit của chuỗi gen: 2 cá thể cùng gen thì cùng fingerprint */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    Graph getGraph() {
+        return graph;
+    }
+
     // ====== ĐỘT BIẾN (FLIP-BIT) ======
 
     /**
      * Đột biến flip-bit: với xác suất mutationRate cho từng gen, ta lật bit 0<->1.
-     * Dùng chung đối tượng Random của GA.
+     * Dùng nguồn ngẫu nhiên do GA truyền vào.
      */
-    public void mutate(double mutationRate, Random rand) {
+    public void mutate(double mutationRate, RandomGenerator rand) {
         int n = graph.size();
         for (int i = 1; i <= n; i++) {
             if (rand.nextDouble() < mutationRate) {
-                genes.flip(i);
+                flipGene(i);
             }
         }
     }
 
+    /** Lật gen v (dùng cho các MutationOperator), cập nhật fingerprint tương ứng */
+    void flipGene(int v) {
+        BitWords.flip(genes, v);
+        fingerprint ^= Diversity.zobrist(v);
+    }
+
     // ====== LAI GHÉP ĐƠN ĐIỂM (ONE-POINT CROSSOVER) ======
 
     /**
      * Lai ghép đơn điểm: chọn vị trí cắt (1..n-1), trước điểm cắt lấy gen bố 1, sau điểm cắt lấy gen bố 2.
      * Sau khi lai ghép xong, tính lại fitness + index cho con.
      */
-    public static Individual crossover(Individual parent1, Individual parent2, Random rand) {
+    public static Individual crossover(Individual parent1, Individual parent2, RandomGenerator rand) {
+        return crossover(parent1, parent2, rand, ExpandPolicy.RANDOM);
+    }
+
+    /** Như trên nhưng con được đánh giá với chiến lược mở rộng clique expandPolicy */
+    public static Individual crossover(Individual parent1, Individual parent2, RandomGenerator rand,
+                                       ExpandPolicy expandPolicy) {
+        Individual offspring = crossoverUnevaluated(parent1, parent2, rand);
+        offspring.calculateFitness(rand, expandPolicy);
+        return offspring;
+    }
+
+    /** Phần lai ghép của crossover nhưng chưa tính fitness (GA tra cache trước khi đánh giá) */
+    static Individual crossoverUnevaluated(Individual parent1, Individual parent2, RandomGenerator rand) {
         Graph graph = parent1.graph;
         int n = graph.size();
 
-        BitSet childGenes = new BitSet(n + 1);
+        long[] childGenes = new long[graph.wordCount()];
 
         // điểm cắt từ 1..n-1
         int point = 1 + rand.nextInt(Math.max(1, n - 1));
 
         for (int i = 1; i <= n; i++) {
-            if (i < point) {
-                childGenes.set(i, parent1.genes.get(i));
-            } else {
-                childGenes.set(i, parent2.genes.get(i));
+            long[] src = (i < point) ? parent1.genes : parent2.genes;
+            if (BitWords.get(src, i)) {
+                BitWords.set(childGenes, i);
             }
         }
 
-        Individual offspring = new Individual(graph, childGenes, 0, 0.0);
-        offspring.calculateFitness(rand);
-        return offspring;
+        return fromGenes(graph, childGenes);
     }
 
     // ====== TÍNH FITNESS + INDEX ======
@@ -106,11 +168,38 @@ public class Individual {
      *  - B3: fitness = số bit 1 sau khi đã sửa (kích thước clique)
      *  - B4: tính thêm chỉ mục indexScore dựa trên mật độ cạnh bên trong
      */
-    public void calculateFitness(Random rand) {
-        repairToClique();
-        greedyExpand(rand);
-        fitness = genes.cardinality();
-        calculateIndex();
+    public void calculateFitness(RandomGenerator rand) {
+        calculateFitness(rand, ExpandPolicy.RANDOM);
+    }
+
+    /** Như calculateFitness(RandomGenerator) nhưng chọn chiến lược mở rộng clique ở bước B2 */
+    public void calculateFitness(RandomGenerator rand, ExpandPolicy expandPolicy) {
+        calculateFitness(rand, expandPolicy, null);
+    }
+
+    /**
+     * Như trên; rec != null thì ghi thêm thời gian repair / expand / index vào rec và đếm số đỉnh bị xóa,
+     * được thêm, số lần quét 1 hàng kề (mỗi lời gọi Graph.*Neighborhood / count / listCommonNeighbors).
+     */
+    void calculateFitness(RandomGenerator rand, ExpandPolicy expandPolicy, GaMetrics.Recorder rec) {
+        int before = (rec != null) ? BitWords.cardinality(genes) : 0;
+        long t = (rec != null) ? System.nanoTime() : 0;
+        int probes = repairToClique();
+        if (rec != null) t = rec.lap(GaMetrics.Phase.REPAIR, t);
+        int repaired = (rec != null) ? BitWords.cardinality(genes) : 0;
+        probes += greedyExpand(rand, expandPolicy);
+        fitness = BitWords.cardinality(genes);
+        if (rec != null) t = rec.lap(GaMetrics.Phase.EXPANSION, t);
+        fingerprint = Diversity.fingerprint(genes);
+        probes += computeIndex();
+        if (rec == null) {
+            return;
+        }
+        rec.lap(GaMetrics.Phase.INDEX, t);
+        rec.add(GaMetrics.Counter.EVALUATIONS, 1);
+        rec.add(GaMetrics.Counter.REPAIR_REMOVALS, before - repaired);
+        rec.add(GaMetrics.Counter.EXPANSION_ADDITIONS, fitness - repaired);
+        rec.add(GaMetrics.Counter.EDGE_PROBES, probes);
     }
 
     /**
@@ -122,127 +211,230 @@ public class Individual {
      *  - indexScore = density / k (ưu tiên clique nhỏ nhưng dày đặc)
      */
     public void calculateIndex() {
-        int k = genes.cardinality();
+        computeIndex();
+    }
+
+    /** calculateIndex, trả về số lần quét hàng kề */
+    private int computeIndex() {
+        int k = BitWords.cardinality(genes);
         if (k <= 1) {
             indexScore = 0.0;
-            return;
+            return 0;
         }
 
-        int edgesInside = 0;
-        for (int i = genes.nextSetBit(1); i >= 1; i = genes.nextSetBit(i + 1)) {
-            for (int j = genes.nextSetBit(i + 1); j >= 1; j = genes.nextSetBit(j + 1)) {
-                if (graph.isEdge(i, j)) {
-                    edgesInside++;
-                }
-            }
+        // Mỗi cạnh bên trong được đếm 2 lần (từ 2 đầu mút)
+        int degreeSum = 0;
+        for (int i = BitWords.nextSetBit(genes, 1); i >= 1; i = BitWords.nextSetBit(genes, i + 1)) {
+            degreeSum += graph.countCommonNeighbors(i, genes);
         }
+        int edgesInside = degreeSum / 2;
 
         int maxEdges = k * (k - 1) / 2;
         if (maxEdges == 0) {
             indexScore = 0.0;
-            return;
+            return k;
         }
 
         double density = (double) edgesInside / maxEdges;
         // indexScore: càng ít đỉnh nhưng càng dày đặc thì càng cao
         indexScore = density / k;
+        return k;
     }
 
-    // ====== CÁC HÀM HỖ TRỢ CLIQUE ======
-
-    /** Kiểm tra tập đỉnh (BitSet) có tạo thành clique hay không */
-    private boolean isClique(BitSet set) {
-        for (int i = set.nextSetBit(1); i >= 1; i = set.nextSetBit(i + 1)) {
-            for (int j = set.nextSetBit(i + 1); j >= 1; j = set.nextSetBit(j + 1)) {
-                if (!graph.isEdge(i, j)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+    /**
+     * Giai đoạn memetic: cải thiện clique hiện tại (đã qua calculateFitness) bằng tìm kiếm cục bộ tabu,
+     * rồi cập nhật fitness + index + fingerprint.
+     */
+    void improveWithLocalSearch(LocalSearch localSearch, RandomGenerator rand) {
+        fitness = localSearch.improve(graph, genes, rand);
+        fingerprint = Diversity.fingerprint(genes);
+        calculateIndex();
     }
 
-    /** Tìm đỉnh có bậc trong (internal degree) nhỏ nhất trong tập đang chọn */
-    private int findWorstVertexInCurrentSet() {
-        int worstV = -1;
-        int worstInternalDegree = Integer.MAX_VALUE;
-
-        for (int v = genes.nextSetBit(1); v >= 1; v = genes.nextSetBit(v + 1)) {
-            int internalDegree = 0;
-            for (int u = genes.nextSetBit(1); u >= 1; u = genes.nextSetBit(u + 1)) {
-                if (u != v && graph.isEdge(u, v)) {
-                    internalDegree++;
-                }
-            }
-            if (internalDegree < worstInternalDegree) {
-                worstInternalDegree = internalDegree;
-                worstV = v;
-            }
+    /**
+     * Ghi đè chuỗi gen bằng clique đã đánh giá sẵn (EvaluationCache), bỏ qua repair / expand.
+     */
+    void setEvaluated(int[] clique, int fitness, double indexScore, long fingerprint) {
+        Arrays.fill(genes, 0L);
+        for (int v : clique) {
+            BitWords.set(genes, v);
         }
-        return worstV;
+        this.fitness = fitness;
+        this.indexScore = indexScore;
+        this.fingerprint = fingerprint;
     }
 
+    // ====== CÁC HÀM HỖ TRỢ CLIQUE ======
+
     /**
      * Sửa chuỗi gen hiện tại thành một clique:
-     *  - Nếu chưa là clique, liên tục xóa đỉnh "tệ nhất" (internal degree nhỏ nhất)
-     *    cho đến khi tập còn lại là clique hoặc rỗng.
+     *  - Tính bậc trong (internal degree) của mọi đỉnh đang chọn đúng 1 lần,
+     *  - Liên tục xóa đỉnh "tệ nhất" (bậc trong nhỏ nhất, hòa thì lấy đỉnh có chỉ số nhỏ nhất),
+     *    sau mỗi lần xóa chỉ giảm bậc trong của các láng giềng của đỉnh vừa xóa,
+     *  - Dừng ngay khi bậc trong nhỏ nhất == k - 1 (tập còn lại là clique) hoặc chỉ còn <= 1 đỉnh.
+     * Đỉnh tệ nhất lấy từ min-heap khóa (bậc trong, chỉ số) với xóa lười (bỏ qua mục đã cũ),
+     * nên mỗi lần xóa tốn O(log) thay vì quét lại cả tập — cần cho đồ thị lớn (SparseGraph).
+     * Bậc trong lưu theo vị trí trong mảng k đỉnh đang chọn (tăng dần, tra bằng tìm kiếm nhị phân),
+     * không cấp phát mảng theo n cho mỗi lần đánh giá.
+     * Trả về số lần quét hàng kề (k lần đếm bậc trong ban đầu + 1 lần mỗi đỉnh bị xóa).
      */
-    private void repairToClique() {
-        if (genes.isEmpty()) {
-            return;
+    int repairToClique() {
+        int k = BitWords.cardinality(genes);
+        if (k <= 1) {
+            return 0;
+        }
+        int probes = k;
+
+        // members tăng dần => so sánh vị trí cũng là so sánh chỉ số đỉnh (giữ nguyên luật hòa)
+        int[] members = new int[k];
+        int[] internalDegree = new int[k];
+        LongMinHeap heap = new LongMinHeap(k);
+        int idx = 0;
+        for (int v = BitWords.nextSetBit(genes, 1); v >= 1; v = BitWords.nextSetBit(genes, v + 1)) {
+            members[idx] = v;
+            internalDegree[idx] = graph.countCommonNeighbors(v, genes);
+            heap.push(degreeKey(internalDegree[idx], idx));
+            idx++;
         }
 
-        while (!isClique(genes)) {
-            int vertexToRemove = findWorstVertexInCurrentSet();
-            if (vertexToRemove == -1) {
+        int[] affected = new int[k];
+        while (k > 1) {
+            long top = heap.peek();
+            int worst = (int) top;
+            int worstV = members[worst];
+            int worstInternalDegree = (int) (top >>> 32);
+            if (!BitWords.get(genes, worstV) || internalDegree[worst] != worstInternalDegree) {
+                heap.pop(); // mục cũ: đỉnh đã bị xóa hoặc bậc trong đã giảm
+                continue;
+            }
+            if (worstInternalDegree == k - 1) {
                 break;
             }
-            genes.clear(vertexToRemove);
 
-            if (genes.isEmpty()) {
-                break;
+            heap.pop();
+            BitWords.clear(genes, worstV);
+            k--;
+
+            // Chỉ các láng giềng còn lại của worstV bị mất 1 bậc trong
+            int count = graph.listCommonNeighbors(worstV, genes, affected);
+            probes++;
+            for (int i = 0; i < count; i++) {
+                int u = Arrays.binarySearch(members, affected[i]);
+                internalDegree[u]--;
+                heap.push(degreeKey(internalDegree[u], u));
             }
         }
+        return probes;
+    }
+
+    /** Khóa heap: so sánh theo bậc trong trước, hòa thì theo vị trí (= thứ tự chỉ số đỉnh) */
+    private static long degreeKey(int internalDegree, int pos) {
+        return ((long) internalDegree << 32) | pos;
+    }
+
+    /** Min-heap nhị phân trên long (không boxing) */
+    private static final class LongMinHeap {
+        private long[] a;
+        private int size;
+
+        LongMinHeap(int capacity) {
+            a = new long[Math.max(16, capacity)];
+        }
+
+        void push(long x) {
+            if (size == a.length) {
+                a = Arrays.copyOf(a, a.length * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (a[parent] <= x) break;
+                a[i] = a[parent];
+                i = parent;
+            }
+            a[i] = x;
+        }
+
+        long peek() {
+            return a[0];
+        }
+
+        void pop() {
+            long x = a[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && a[child + 1] < a[child]) child++;
+                if (x <= a[child]) break;
+                a[i] = a[child];
+                i = child;
+            }
+            a[i] = x;
+        }
     }
 
     /**
-     * Mở rộng clique hiện tại một cách tham lam:
-     *  - Lấy danh sách các đỉnh chưa chọn,
-     *  - Trộn ngẫu nhiên,
-     *  - Thử thêm từng đỉnh nếu vẫn giữ được clique.
+     * Mở rộng clique hiện tại một cách tham lam trên tập ứng viên:
+     *  - Ứng viên = giao các tập láng giềng của mọi đỉnh trong clique (clique rỗng => mọi đỉnh),
+     *  - Chọn 1 ứng viên theo expandPolicy và thêm vào clique,
+     *  - Thu hẹp tập ứng viên bằng 1 phép AND với hàng kề của đỉnh vừa thêm,
+     *  - Lặp đến khi hết ứng viên (clique tối đại).
+     * Không bao giờ duyệt qua đỉnh không thể thêm được.
+     * Trả về số lần quét hàng kề (dựng tập ứng viên, thu hẹp sau mỗi đỉnh thêm, và với MAX_CANDIDATE_DEGREE
+     * thêm 1 lần cho mỗi ứng viên được chấm điểm).
      */
-    private void greedyExpand(Random rand) {
-        int n = graph.size();
-        List<Integer> candidates = new ArrayList<>();
-        for (int v = 1; v <= n; v++) {
-            if (!genes.get(v)) {
-                candidates.add(v);
+    int greedyExpand(RandomGenerator rand, ExpandPolicy expandPolicy) {
+        long[] candidates = new long[genes.length];
+        int probes = 0;
+        int first = BitWords.nextSetBit(genes, 1);
+        if (first < 0) {
+            BitWords.setRange(candidates, 1, graph.size() + 1);
+        } else {
+            graph.copyNeighborhood(first, candidates);
+            probes++;
+            for (int u = BitWords.nextSetBit(genes, first + 1); u >= 1; u = BitWords.nextSetBit(genes, u + 1)) {
+                graph.retainNeighborhood(u, candidates);
+                probes++;
             }
         }
-        Collections.shuffle(candidates, rand);
 
-        for (int v : candidates) {
-            if (canAddVertex(v)) {
-                genes.set(v);
+        int remaining = BitWords.cardinality(candidates);
+        while (remaining > 0) {
+            int v;
+            if (expandPolicy == ExpandPolicy.MAX_CANDIDATE_DEGREE) {
+                v = maxCandidateDegreeVertex(candidates);
+                probes += remaining; // maxCandidateDegreeVertex quét hàng kề của mọi ứng viên
+            } else {
+                v = BitWords.selectSetBit(candidates, rand.nextInt(remaining));
             }
+            BitWords.set(genes, v);
+            graph.retainNeighborhood(v, candidates);
+            probes++;
+            remaining = BitWords.cardinality(candidates);
         }
+        return probes;
     }
 
-    /** Kiểm tra có thể thêm đỉnh v vào clique hiện tại hay không (v nối với mọi đỉnh trong clique) */
-    private boolean canAddVertex(int v) {
-        for (int u = genes.nextSetBit(1); u >= 1; u = genes.nextSetBit(u + 1)) {
-            if (!graph.isEdge(u, v)) {
-                return false;
+    /** Đỉnh ứng viên có nhiều láng giềng nhất trong tập ứng viên (hòa thì lấy chỉ số nhỏ nhất) */
+    private int maxCandidateDegreeVertex(long[] candidates) {
+        int bestV = -1;
+        int bestDegree = -1;
+        for (int v = BitWords.nextSetBit(candidates, 1); v >= 1; v = BitWords.nextSetBit(candidates, v + 1)) {
+            int d = graph.countCommonNeighbors(v, candidates);
+            if (d > bestDegree) {
+                bestDegree = d;
+                bestV = v;
             }
         }
-        return true;
+        return bestV;
     }
 
     // ====== CLONE ======
 
     public Individual cloneIndividual() {
-        BitSet clonedGenes = (BitSet) this.genes.clone();
-        return new Individual(this.graph, clonedGenes, this.fitness, this.indexScore);
+        long[] clonedGenes = this.genes.clone();
+        return new Individual(this.graph, clonedGenes, this.fitness, this.indexScore, this.fingerprint);
     }
 
     // ====== DEBUG / LOG ======
@@ -252,7 +444,7 @@ public class Individual {
         StringBuilder sb = new StringBuilder();
         sb.append("Genes: ");
         for (int i = 1; i <= graph.size(); i++) {
-            sb.append(genes.get(i) ? '1' : '0');
+            sb.append(BitWords.get(genes, i) ? '1' : '0');
         }
         sb.append(", Fitness: ").append(fitness);
         sb.append(", IndexScore: ").append(String.format("%.6f", indexScore));
@@ -0,0 +1,98 @@
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/** Chuỗi int không boxing (lịch sử theo thế hệ của GA) — chế độ giữ dữ liệu: xem PrimitiveSeries */
+public final class IntSeries extends PrimitiveSeries {
+
+    private int[] values = new int[0];
+    private int last;
+
+    /** Giữ mọi mẫu */
+    public IntSeries() {
+        super(Retention.ALL, 0);
+    }
+
+    public IntSeries(Retention retention, int capacity) {
+        super(retention, capacity);
+    }
+
+    public void add(int value) {
+        int slot = nextSlot();
+        if (slot >= 0) {
+            values[slot] = value;
+        }
+        last = value;
+    }
+
+    public int get(int i) {
+        int p = physical(i);
+        return (p >= 0) ? values[p] : last;
+    }
+
+    /** Giá trị mới nhất (chuỗi rỗng: lỗi) */
+    public int getLast() {
+        return get(size() - 1);
+    }
+
+    @Override
+    public double getAsDouble(int i) {
+        return get(i);
+    }
+
+    /** View List chỉ đọc, không chép (boxing khi get) */
+    public List<Integer> asList() {
+        return new View();
+    }
+
+    private final class View extends AbstractList<Integer> implements RandomAccess {
+        @Override
+        public Integer get(int index) {
+            return IntSeries.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return IntSeries.this.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return asList().toString();
+    }
+
+    @Override
+    protected int length() {
+        return values.length;
+    }
+
+    @Override
+    protected void resize(int newLength) {
+        values = Arrays.copyOf(values, newLength);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        values[to] = values[from];
+    }
+
+    // ====== CHECKPOINT ======
+
+    void write(ByteBuffer out) {
+        writeState(out);
+        for (int i = 0; i < keptCount(); i++) out.putInt(values[physical(i)]);
+        out.putInt(last);
+    }
+
+    static IntSeries read(ByteBuffer in) {
+        Retention retention = readRetention(in);
+        IntSeries s = new IntSeries(retention, in.getInt());
+        int kept = s.readState(in);
+        for (int i = 0; i < kept; i++) s.values[i] = in.getInt();
+        s.last = in.getInt();
+        return s;
+    }
+}
@@ -0,0 +1,263 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Mô hình đảo (island model): K quần thể GeneticAlgorithm độc lập chạy trên K luồng
+ * với cùng một Graph dùng chung (chỉ đọc). Cứ sau migrationInterval thế hệ, mỗi đảo
+ * gửi migrantCount cá thể tốt nhất sang đảo khác theo topo RING hoặc RANDOM,
+ * thay thế các cá thể kém nhất của đảo nhận.
+ *
+ * Mỗi đảo có thể có tham số riêng (tỷ lệ đột biến, lai ghép...) — chỉ cần tạo
+ * GeneticAlgorithm khác nhau rồi truyền vào. Lịch sử trả về qua cùng các getter như
+ * GeneticAlgorithm; lịch sử riêng từng đảo lấy qua getIsland(i).
+ */
+public class IslandModel {
+
+    public enum Topology { RING, RANDOM }
+
+    private final Graph graph;
+    private final List<GeneticAlgorithm> islands;
+    private final int migrationInterval;
+    private final int migrantCount;
+    private final Topology topology;
+
+    private long seed = new SplittableRandom().nextLong();
+
+    private double executionTimeSec;
+    private int actualGenerations;
+    private int migrations;
+    private Individual globalBest;
+    private int historyBest;  // best đã ghi vào lịch sử toàn cục (max dồn qua các thế hệ)
+
+    // Lịch sử toàn cục: best = best toàn cục tới thế hệ đó (không giảm); thời gian = đảo chậm nhất ở thế hệ đó
+    private IntSeries genHistory = new IntSeries();
+    private IntSeries bestFitnessHistory = new IntSeries();
+    private IntSeries genTimeMsHistory = new IntSeries();
+
+    // ============================================================
+    // CONSTRUCTOR
+    // ============================================================
+    public IslandModel(List<GeneticAlgorithm> islands,
+                       int migrationInterval,
+                       int migrantCount,
+                       Topology topology) {
+        if (islands == null || islands.isEmpty()) {
+            throw new IllegalArgumentException("Island model needs at least one island");
+        }
+        this.graph = islands.get(0).getGraph();
+        for (GeneticAlgorithm ga : islands) {
+            if (ga.getGraph() != graph) {
+                throw new IllegalArgumentException("All islands must share the same Graph");
+            }
+        }
+        this.islands = new ArrayList<>(islands);
+        this.migrationInterval = Math.max(1, migrationInterval);
+        this.migrantCount = Math.max(0, migrantCount);
+        this.topology = topology;
+    }
+
+    /** Chế độ giữ lịch sử (xem GeneticAlgorithm.setHistoryRetention) cho lịch sử toàn cục và mọi đảo */
+    public void setHistoryRetention(PrimitiveSeries.Retention retention, int capacity) {
+        genHistory = new IntSeries(retention, capacity);
+        bestFitnessHistory = new IntSeries(retention, capacity);
+        genTimeMsHistory = new IntSeries(retention, capacity);
+        for (GeneticAlgorithm ga : islands) {
+            ga.setHistoryRetention(retention, capacity);
+        }
+    }
+
+    /** Seed cho việc chọn đảo đích khi topo là RANDOM */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // ============================================================
+    // CHẠY
+    // ============================================================
+
+    /**
+     * Chạy mọi đảo tới khi tất cả dừng, trả về best toàn cục. Trong lúc chạy, log output.txt của từng đảo
+     * bị tắt (các đảo sẽ ghi đè file của nhau); cờ setEnableLogging của mỗi đảo được trả lại khi kết thúc.
+     */
+    public Individual run() {
+        long startTimeMillis = System.currentTimeMillis();
+        genHistory.clear();
+        bestFitnessHistory.clear();
+        genTimeMsHistory.clear();
+        actualGenerations = 0;
+        migrations = 0;
+        historyBest = Integer.MIN_VALUE;
+
+        int k = islands.size();
+        SplittableRandom migrationRand = new SplittableRandom(seed);
+        ExecutorService executor = Executors.newFixedThreadPool(k);
+        boolean[] alive = new boolean[k];
+        boolean[] logging = new boolean[k];
+
+        try {
+            // Mỗi đảo ghi output.txt sẽ ghi đè lẫn nhau => tắt log file của từng đảo
+            for (int i = 0; i < k; i++) {
+                logging[i] = islands.get(i).isEnableLogging();
+                islands.get(i).setEnableLogging(false);
+            }
+            runOnAll(executor, i -> { islands.get(i).startRun(); alive[i] = true; }, alive, true);
+
+            while (anyAlive(alive)) {
+                // ===== 1) CHẠY migrationInterval THẾ HỆ TRÊN MỌI ĐẢO SONG SONG =====
+                runOnAll(executor, i -> {
+                    for (int g = 0; g < migrationInterval && alive[i]; g++) {
+                        alive[i] = islands.get(i).step();
+                    }
+                }, alive, false);
+
+                // ===== 2) GỘP LỊCH SỬ CÁC ĐẢO =====
+                mergeHistories();
+
+                // ===== 3) DI CƯ =====
+                if (migrantCount > 0 && k > 1 && anyAlive(alive)) {
+                    migrate(alive, migrationRand);
+                }
+            }
+        } finally {
+            List<Individual> bests = new ArrayList<>(k);
+            for (int i = 0; i < k; i++) {
+                bests.add(islands.get(i).finishRun());
+                islands.get(i).setEnableLogging(logging[i]);
+            }
+            executor.shutdown();
+            globalBest = bestOf(bests);
+        }
+
+        executionTimeSec = (System.currentTimeMillis() - startTimeMillis) / 1000.0;
+        return globalBest;
+    }
+
+    private interface IslandTask {
+        void run(int island);
+    }
+
+    /** Chạy task cho từng đảo (còn sống, hoặc tất cả nếu includeDead) trên executor và chờ xong */
+    private void runOnAll(ExecutorService executor, IslandTask task, boolean[] alive, boolean includeDead) {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < islands.size(); i++) {
+            if (includeDead || alive[i]) {
+                int island = i;
+                futures.add(executor.submit(() -> task.run(island)));
+            }
+        }
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("Island failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void migrate(boolean[] alive, SplittableRandom migrationRand) {
+        int k = islands.size();
+        // Lấy hết người di cư trước rồi mới nhận, để thứ tự xử lý đảo không ảnh hưởng kết quả
+        List<List<Individual>> outgoing = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            outgoing.add(alive[i] ? islands.get(i).emigrants(migrantCount) : List.of());
+        }
+        for (int i = 0; i < k; i++) {
+            if (outgoing.get(i).isEmpty()) continue;
+            int target = destination(i, alive, migrationRand);
+            if (target >= 0) {
+                islands.get(target).acceptImmigrants(outgoing.get(i));
+            }
+        }
+        migrations++;
+    }
+
+    /** Đảo đích (còn sống, khác nguồn) theo topo; -1 nếu không có */
+    private int destination(int source, boolean[] alive, SplittableRandom migrationRand) {
+        int k = islands.size();
+        if (topology == Topology.RANDOM) {
+            int offset = 1 + migrationRand.nextInt(k - 1);
+            for (int step = 0; step < k - 1; step++) {
+                int target = (source + offset + step) % k;
+                if (target != source && alive[target]) return target;
+            }
+            return -1;
+        }
+        for (int step = 1; step < k; step++) {
+            int target = (source + step) % k;
+            if (alive[target]) return target;
+        }
+        return -1;
+    }
+
+    /**
+     * Bổ sung các thế hệ mới của lịch sử toàn cục từ lịch sử từng đảo (gọi khi mọi đảo đang nghỉ).
+     *  - best: max dồn của mọi mẫu đã thấy, nên đảo đã dừng sớm vẫn giữ best của nó cho các thế hệ sau;
+     *    thế hệ cuối của đợt còn tính best toàn cục hiện tại của từng đảo (quần thể ban đầu, di cư, rút gọn
+     *    đồ thị không nằm trong lịch sử đảo) => lịch sử không giảm và điểm cuối bằng best run() trả về,
+     *  - thời gian: đảo chậm nhất trong các đảo còn giữ mẫu thế hệ g (đảo đã dừng không tốn thời gian).
+     * Với RING / DECIMATE, thế hệ không đảo nào còn giữ thì bỏ qua (trừ thế hệ cuối, luôn còn).
+     */
+    private void mergeHistories() {
+        long maxGen = 0;
+        for (GeneticAlgorithm ga : islands) {
+            maxGen = Math.max(maxGen, ga.getGenHistory().getTotalAdded());
+        }
+        for (long g = actualGenerations; g < maxGen; g++) {
+            int timeMs = 0;
+            boolean found = false;
+            for (GeneticAlgorithm ga : islands) {
+                int i = ga.getBestFitnessHistory().indexOf(g);
+                if (i >= 0) {
+                    historyBest = Math.max(historyBest, ga.getBestFitnessHistory().get(i));
+                    timeMs = Math.max(timeMs, ga.getGenTimeMsHistory().get(i));
+                    found = true;
+                }
+            }
+            if (g == maxGen - 1) {
+                for (GeneticAlgorithm ga : islands) {
+                    historyBest = Math.max(historyBest, ga.getBestFitnessSoFar());
+                }
+            }
+            if (!found) continue;
+            genHistory.add((int) g + 1);
+            bestFitnessHistory.add(historyBest);
+            genTimeMsHistory.add(timeMs);
+        }
+        actualGenerations = (int) maxGen;
+    }
+
+    private static boolean anyAlive(boolean[] alive) {
+        for (boolean a : alive) {
+            if (a) return true;
+        }
+        return false;
+    }
+
+    private static Individual bestOf(List<Individual> inds) {
+        Individual best = null;
+        for (Individual ind : inds) {
+            if (ind != null && (best == null || ind.getFitness() > best.getFitness())) {
+                best = ind;
+            }
+        }
+        return best;
+    }
+
+    // ============================================================
+    // GETTER
+    // ============================================================
+
+    public double getExecutionTime() { return executionTimeSec; }
+    public int getActualGenerations() { return actualGenerations; }
+    public int getMigrations() { return migrations; }
+    public int getIslandCount() { return islands.size(); }
+    public GeneticAlgorithm getIsland(int i) { return islands.get(i); }
+
+    public IntSeries getGenHistory() { return genHistory; }
+    public IntSeries getBestFitnessHistory() { return bestFitnessHistory; }
+    public IntSeries getGenTimeMsHistory() { return genTimeMsHistory; }
+}
@@ -0,0 +1,100 @@
+import java.util.Arrays;
+
+/**
+ * Histogram độ trễ (nano giây) kiểu HdrHistogram, kích thước cố định, không cấp phát khi ghi:
+ *  - giá trị < 64 ns được đếm chính xác,
+ *  - mỗi quãng [2^m, 2^(m+1)) chia thành 32 ô đều nhau => sai số tương đối <= 1/32 (~3%),
+ *  - giá trị vượt MAX_TRACKABLE_NANOS (~4,9 giờ) được dồn vào ô cuối.
+ * Chỉ 1 luồng được ghi; đọc từ luồng khác trong lúc đang ghi chỉ cho kết quả xấp xỉ.
+ */
+public final class LatencyHistogram {
+    // Số bit độ chính xác sau bit cao nhất: 2^5 = 32 ô mỗi quãng lũy thừa 2
+    private static final int PRECISION_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+    private static final int EXACT_LIMIT = SUB_BUCKETS << 1;
+    private static final int MAX_MAGNITUDE = 44;
+    public static final long MAX_TRACKABLE_NANOS = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    private static final int BUCKETS = EXACT_LIMIT + (MAX_MAGNITUDE - PRECISION_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts[indexOf(Math.min(v, MAX_TRACKABLE_NANOS))]++;
+        count++;
+        totalNanos += v;
+        if (v < min) min = v;
+        if (v > max) max = v;
+    }
+
+    /** Cộng dồn histogram khác vào histogram này (gộp số liệu các luồng) */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        totalNanos += other.totalNanos;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        count = 0;
+        totalNanos = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Giá trị tại phân vị q (0..1): cận trên của ô chứa mẫu thứ ceil(q · count),
+     * không vượt quá max thực tế. Histogram rỗng => 0.
+     */
+    public long getValueAtPercentile(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.max(0.0, Math.min(1.0, q)) * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, highestValueIn(i)));
+            }
+        }
+        return max;
+    }
+
+    // ====== CHỈ SỐ Ô ======
+
+    private static int indexOf(long v) {
+        if (v < EXACT_LIMIT) {
+            return (int) v;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(v);
+        int shift = magnitude - PRECISION_BITS;
+        int top = (int) (v >>> shift); // SUB_BUCKETS .. 2 * SUB_BUCKETS - 1
+        return EXACT_LIMIT + (shift - 1) * SUB_BUCKETS + (top - SUB_BUCKETS);
+    }
+
+    private static long highestValueIn(int index) {
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+        int shift = (index - EXACT_LIMIT) / SUB_BUCKETS + 1;
+        long top = SUB_BUCKETS + (index - EXACT_LIMIT) % SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+
+    // ====== GETTER ======
+
+    public long getCount() { return count; }
+    public long getTotalNanos() { return totalNanos; }
+    public long getMin() { return count > 0 ? min : 0; }
+    public long getMax() { return max; }
+    public double getMean() { return count > 0 ? (double) totalNanos / count : 0.0; }
+}
@@ -0,0 +1,404 @@
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Biểu đồ đường nhiều chuỗi (ví dụ nhiều lần chạy / nhiều đảo chồng lên nhau), vẽ thẳng ra PNG hoặc SVG
+ * mà không tạo cửa sổ Swing / AWT nào — chạy được với java.awt.headless=true.
+ *  - Mỗi chuỗi được giảm điểm (Downsampler, mặc định LTTB) xuống ~ số pixel chiều ngang vùng vẽ,
+ *    nên 100k thế hệ vẫn vẽ nhanh như vài trăm.
+ *  - Trục x theo giá trị x thật (thế hệ), trục y tự co giãn; vạch chia "đẹp" (1, 2, 5 x 10^k).
+ *  - Điểm tròn và nhãn giá trị chỉ vẽ khi chuỗi sau giảm còn ít điểm (<= MAX_MARKED_POINTS).
+ *  - Chuỗi IntSeries / LongSeries được đọc trực tiếp (không chép) — đừng ghi thêm vào chúng trong lúc vẽ.
+ */
+public final class LineChart {
+    /** Chuỗi có nhiều điểm hơn số này (sau giảm điểm) thì không vẽ chấm tròn / nhãn giá trị */
+    public static final int MAX_MARKED_POINTS = 60;
+
+    private static final Color[] PALETTE = {
+            new Color(220, 20, 60), new Color(30, 100, 200), new Color(40, 160, 60), new Color(240, 140, 0),
+            new Color(140, 60, 180), new Color(0, 160, 170), new Color(120, 80, 40), new Color(200, 60, 160)
+    };
+    private static final Color GRID = new Color(230, 230, 230);
+    private static final int LEFT = 80, RIGHT = 40, TOP = 60, BOTTOM = 80;
+
+    private final String title;
+    private final String xLabel;
+    private final String yLabel;
+    private final List<Series> series = new ArrayList<>();
+    private int width = 1200;
+    private int height = 650;
+    private Downsampler.Method downsampling = Downsampler.Method.LTTB;
+    private boolean pointValues = false;
+
+    public LineChart(String title, String xLabel, String yLabel) {
+        this.title = title;
+        this.xLabel = xLabel;
+        this.yLabel = yLabel;
+    }
+
+    /** 1 chuỗi: count điểm đầu, đọc qua hàm truy cập (x tăng dần) */
+    private static final class Series {
+        final String name;
+        final IntToDoubleFunction x;
+        final IntToDoubleFunction y;
+        final int count;
+        final boolean integral;
+
+        Series(String name, IntToDoubleFunction x, IntToDoubleFunction y, int count, boolean integral) {
+            this.name = name;
+            this.x = x;
+            this.y = y;
+            this.count = count;
+            this.integral = integral;
+        }
+    }
+
+    // ============================================================
+    // DỮ LIỆU / THIẾT LẬP
+    // ============================================================
+
+    public LineChart addSeries(String name, double[] x, double[] y, int count) {
+        if (count < 0 || count > x.length || count > y.length) {
+            throw new IllegalArgumentException("Invalid point count: " + count);
+        }
+        boolean integral = true;
+        for (int i = 0; i < count && integral; i++) integral = y[i] == Math.rint(y[i]);
+        series.add(new Series(name, i -> x[i], i -> y[i], count, integral));
+        return this;
+    }
+
+    /** Chuỗi lấy thẳng từ 2 series (ví dụ GA.getGenHistory() và getBestFitnessHistory()), không chép */
+    public LineChart addSeries(String name, PrimitiveSeries x, PrimitiveSeries y) {
+        int count = Math.min(x.size(), y.size());
+        boolean integral = y instanceof IntSeries || y instanceof LongSeries;
+        series.add(new Series(name, x::getAsDouble, y::getAsDouble, count, integral));
+        return this;
+    }
+
+    public LineChart addSeries(String name, List<? extends Number> x, List<? extends Number> y) {
+        int count = Math.min(x.size(), y.size());
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = x.get(i).doubleValue();
+            ys[i] = y.get(i).doubleValue();
+        }
+        return addSeries(name, xs, ys, count);
+    }
+
+    public void setSize(int width, int height) {
+        this.width = Math.max(LEFT + RIGHT + 10, width);
+        this.height = Math.max(TOP + BOTTOM + 10, height);
+    }
+
+    public void setDownsampling(Downsampler.Method downsampling) {
+        this.downsampling = downsampling;
+    }
+
+    /** Ghi giá trị trên từng điểm (chỉ khi chuỗi đủ ngắn, xem MAX_MARKED_POINTS) */
+    public void setPointValues(boolean pointValues) {
+        this.pointValues = pointValues;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    // ============================================================
+    // XUẤT FILE
+    // ============================================================
+
+    public void savePng(Path path) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            paint(g2, width, height);
+        } finally {
+            g2.dispose();
+        }
+        if (!ImageIO.write(image, "png", path.toFile())) {
+            throw new IOException("No PNG writer available: " + path);
+        }
+    }
+
+    public void saveSvg(Path path) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write(toSvg());
+        }
+    }
+
+    public String toSvg() {
+        SvgCanvas canvas = new SvgCanvas(width, height);
+        draw(canvas, width, height);
+        return canvas.finish();
+    }
+
+    /** Vẽ lên Graphics2D bất kỳ (ảnh, JPanel...) trong khung width x height */
+    public void paint(Graphics2D g2, int width, int height) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, width, height);
+        draw(new GraphicsCanvas(g2), width, height);
+    }
+
+    // ============================================================
+    // VẼ
+    // ============================================================
+
+    private void draw(Canvas c, int w, int h) {
+        int chartW = w - LEFT - RIGHT;
+        int chartH = h - TOP - BOTTOM;
+        int x0 = LEFT;
+        int y0 = TOP + chartH;
+
+        c.text(title, LEFT, 30, Color.BLACK, Anchor.START);
+        c.text(xLabel, x0 + chartW, y0 + 50, Color.BLACK, Anchor.END);
+        c.text(yLabel, 20, TOP - 15, Color.BLACK, Anchor.START);
+        if (chartW <= 0 || chartH <= 0) {
+            return; // khung quá nhỏ (ví dụ cửa sổ bị kéo hẹp), không còn chỗ cho vùng vẽ
+        }
+
+        // ===== KHOẢNG GIÁ TRỊ (trên toàn bộ dữ liệu, không chỉ điểm đã giảm) =====
+        double xMin = Double.POSITIVE_INFINITY, xMax = Double.NEGATIVE_INFINITY;
+        double yMin = Double.POSITIVE_INFINITY, yMax = Double.NEGATIVE_INFINITY;
+        boolean integral = true;
+        for (Series s : series) {
+            if (s.count == 0) continue;
+            xMin = Math.min(xMin, s.x.applyAsDouble(0));
+            xMax = Math.max(xMax, s.x.applyAsDouble(s.count - 1));
+            for (int i = 0; i < s.count; i++) {
+                yMin = Math.min(yMin, s.y.applyAsDouble(i));
+                yMax = Math.max(yMax, s.y.applyAsDouble(i));
+            }
+            integral &= s.integral;
+        }
+        c.line(x0, TOP, x0, y0, Color.BLACK, 1f);
+        c.line(x0, y0, x0 + chartW, y0, Color.BLACK, 1f);
+        if (xMin > xMax) {
+            return; // không có điểm nào
+        }
+        // Như bản cũ: chừa 1 đơn vị (số nguyên) hoặc 5% khoảng giá trị ở trên / dưới
+        double pad = integral ? 1 : Math.max((yMax - yMin) * 0.05, 1e-9);
+        yMin -= pad;
+        yMax += pad;
+        if (xMin == xMax) { xMin -= 1; xMax += 1; }
+
+        // ===== LƯỚI + VẠCH CHIA =====
+        double yStep = niceStep(yMax - yMin, Math.max(2, chartH / 40), integral);
+        for (double v = Math.ceil(yMin / yStep) * yStep; v <= yMax + 1e-9 * yStep; v += yStep) {
+            double y = mapY(v, yMin, yMax, chartH);
+            c.line(x0 + 1, y, x0 + chartW, y, GRID, 1f);
+            c.text(formatTick(v, yStep), x0 - 8, y + 4, Color.BLACK, Anchor.END);
+        }
+        double xStep = niceStep(xMax - xMin, Math.max(2, chartW / 90), true);
+        for (double v = Math.ceil(xMin / xStep) * xStep; v <= xMax + 1e-9 * xStep; v += xStep) {
+            double x = mapX(v, xMin, xMax, chartW);
+            c.line(x, TOP, x, y0 - 1, GRID, 1f);
+            c.text(formatTick(v, xStep), x, y0 + 20, Color.BLACK, Anchor.MIDDLE);
+        }
+
+        // ===== CÁC ĐƯỜNG =====
+        for (int k = 0; k < series.size(); k++) {
+            Series s = series.get(k);
+            if (s.count == 0) continue;
+            Color colour = PALETTE[k % PALETTE.length];
+            int[] kept = Downsampler.select(s.x, s.y, s.count, chartW, downsampling);
+            double[] px = new double[kept.length];
+            double[] py = new double[kept.length];
+            for (int i = 0; i < kept.length; i++) {
+                px[i] = mapX(s.x.applyAsDouble(kept[i]), xMin, xMax, chartW);
+                py[i] = mapY(s.y.applyAsDouble(kept[i]), yMin, yMax, chartH);
+            }
+            c.polyline(px, py, colour, 2.5f);
+            if (kept.length <= MAX_MARKED_POINTS) {
+                for (int i = 0; i < kept.length; i++) {
+                    c.dot(px[i], py[i], 4, colour);
+                    if (pointValues) {
+                        c.text(formatValue(s.y.applyAsDouble(kept[i])), px[i], py[i] - 10, Color.BLACK, Anchor.MIDDLE);
+                    }
+                }
+            }
+        }
+
+        // ===== CHÚ THÍCH (nhiều chuỗi) / TÓM TẮT (1 chuỗi) =====
+        if (series.size() == 1) {
+            Series s = series.get(0);
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < s.count; i++) {
+                min = Math.min(min, s.y.applyAsDouble(i));
+                max = Math.max(max, s.y.applyAsDouble(i));
+            }
+            c.text("Min=" + formatValue(min) + " | Max=" + formatValue(max) + " | Last=" + formatValue(s.y.applyAsDouble(s.count - 1)),
+                    x0 + chartW, TOP - 20, Color.BLACK, Anchor.END);
+        } else {
+            for (int k = 0; k < series.size(); k++) {
+                double ly = TOP + 15 + 18 * k;
+                double lx = x0 + chartW - 150;
+                Color colour = PALETTE[k % PALETTE.length];
+                c.line(lx, ly - 4, lx + 24, ly - 4, colour, 2.5f);
+                c.text(series.get(k).name, lx + 30, ly, Color.BLACK, Anchor.START);
+            }
+        }
+    }
+
+    private static double mapX(double v, double min, double max, int chartW) {
+        return LEFT + (v - min) / (max - min) * chartW;
+    }
+
+    private static double mapY(double v, double min, double max, int chartH) {
+        return TOP + chartH - (v - min) / (max - min) * chartH;
+    }
+
+    /** Bước chia 1 / 2 / 5 x 10^k sao cho có khoảng maxTicks vạch; integral: bước >= 1 */
+    private static double niceStep(double range, int maxTicks, boolean integral) {
+        double raw = range / maxTicks;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(raw)));
+        double norm = raw / magnitude;
+        double step = (norm <= 1 ? 1 : norm <= 2 ? 2 : norm <= 5 ? 5 : 10) * magnitude;
+        return integral ? Math.max(1, step) : step;
+    }
+
+    private static String formatTick(double v, double step) {
+        if (step >= 1) {
+            return String.valueOf(Math.round(v));
+        }
+        int decimals = (int) Math.ceil(-Math.log10(step));
+        return String.format(Locale.ROOT, "%." + decimals + "f", v);
+    }
+
+    private static String formatValue(double v) {
+        return (v == Math.rint(v) && Math.abs(v) < 1e15)
+                ? String.valueOf((long) v)
+                : String.format(Locale.ROOT, "%.4g", v);
+    }
+
+    // ============================================================
+    // ĐÍCH VẼ: Graphics2D hoặc SVG
+    // ============================================================
+
+    private enum Anchor { START, MIDDLE, END }
+
+    private interface Canvas {
+        void line(double x1, double y1, double x2, double y2, Color colour, float width);
+        void polyline(double[] xs, double[] ys, Color colour, float width);
+        void dot(double x, double y, double radius, Color colour);
+        void text(String s, double x, double y, Color colour, Anchor anchor);
+    }
+
+    private static final class GraphicsCanvas implements Canvas {
+        private final Graphics2D g2;
+
+        GraphicsCanvas(Graphics2D g2) {
+            this.g2 = g2;
+            g2.setFont(g2.getFont().deriveFont(Font.PLAIN, 12f));
+        }
+
+        @Override
+        public void line(double x1, double y1, double x2, double y2, Color colour, float width) {
+            g2.setColor(colour);
+            g2.setStroke(new BasicStroke(width));
+            g2.drawLine((int) Math.round(x1), (int) Math.round(y1), (int) Math.round(x2), (int) Math.round(y2));
+        }
+
+        @Override
+        public void polyline(double[] xs, double[] ys, Color colour, float width) {
+            int[] px = new int[xs.length];
+            int[] py = new int[ys.length];
+            for (int i = 0; i < xs.length; i++) {
+                px[i] = (int) Math.round(xs[i]);
+                py[i] = (int) Math.round(ys[i]);
+            }
+            g2.setColor(colour);
+            g2.setStroke(new BasicStroke(width, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+            g2.drawPolyline(px, py, px.length);
+        }
+
+        @Override
+        public void dot(double x, double y, double radius, Color colour) {
+            g2.setColor(colour);
+            int d = (int) Math.round(2 * radius);
+            g2.fillOval((int) Math.round(x - radius), (int) Math.round(y - radius), d, d);
+        }
+
+        @Override
+        public void text(String s, double x, double y, Color colour, Anchor anchor) {
+            g2.setColor(colour);
+            int w = (anchor == Anchor.START) ? 0 : g2.getFontMetrics().stringWidth(s);
+            double left = (anchor == Anchor.END) ? x - w : (anchor == Anchor.MIDDLE) ? x - w / 2.0 : x;
+            g2.drawString(s, (float) left, (float) y);
+        }
+    }
+
+    private static final class SvgCanvas implements Canvas {
+        private final StringBuilder sb = new StringBuilder(1 << 14);
+
+        SvgCanvas(int width, int height) {
+            sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(width)
+                    .append("\" height=\"").append(height).append("\" viewBox=\"0 0 ").append(width).append(' ')
+                    .append(height).append("\" font-family=\"sans-serif\" font-size=\"12\">\n")
+                    .append("<rect width=\"100%\" height=\"100%\" fill=\"white\"/>\n");
+        }
+
+        @Override
+        public void line(double x1, double y1, double x2, double y2, Color colour, float width) {
+            sb.append("<line x1=\"").append(num(x1)).append("\" y1=\"").append(num(y1))
+                    .append("\" x2=\"").append(num(x2)).append("\" y2=\"").append(num(y2))
+                    .append("\" stroke=\"").append(hex(colour)).append("\" stroke-width=\"").append(width).append("\"/>\n");
+        }
+
+        @Override
+        public void polyline(double[] xs, double[] ys, Color colour, float width) {
+            sb.append("<polyline fill=\"none\" stroke=\"").append(hex(colour)).append("\" stroke-width=\"").append(width)
+                    .append("\" stroke-linejoin=\"round\" stroke-linecap=\"round\" points=\"");
+            for (int i = 0; i < xs.length; i++) {
+                if (i > 0) sb.append(' ');
+                sb.append(num(xs[i])).append(',').append(num(ys[i]));
+            }
+            sb.append("\"/>\n");
+        }
+
+        @Override
+        public void dot(double x, double y, double radius, Color colour) {
+            sb.append("<circle cx=\"").append(num(x)).append("\" cy=\"").append(num(y)).append("\" r=\"")
+                    .append(num(radius)).append("\" fill=\"").append(hex(colour)).append("\"/>\n");
+        }
+
+        @Override
+        public void text(String s, double x, double y, Color colour, Anchor anchor) {
+            sb.append("<text x=\"").append(num(x)).append("\" y=\"").append(num(y)).append('"');
+            if (anchor != Anchor.START) {
+                sb.append(" text-anchor=\"").append(anchor == Anchor.END ? "end" : "middle").append('"');
+            }
+            sb.append(" fill=\"").append(hex(colour)).append("\">").append(escape(s)).append("</text>\n");
+        }
+
+        String finish() {
+            return sb.append("</svg>\n").toString();
+        }
+
+        private static String num(double v) {
+            return String.format(Locale.ROOT, "%.1f", v);
+        }
+
+        private static String hex(Color c) {
+            return String.format("#%02x%02x%02x", c.getRed(), c.getGreen(), c.getBlue());
+        }
+
+        private static String escape(String s) {
+            return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+        }
+    }
+}
@@ -0,0 +1,243 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Tìm kiếm cục bộ tabu trên clique (giai đoạn memetic sau greedyExpand), theo kiểu tabu đa lân cận:
+ *  - ADD: thêm đỉnh nối với mọi đỉnh của clique (tập PA),
+ *  - (1,2)-SWAP: bỏ 1 đỉnh u, thêm 2 đỉnh kề nhau chỉ thiếu cạnh tới u (tăng kích thước 1),
+ *  - (1,1)-SWAP: thêm đỉnh v chỉ thiếu cạnh tới đúng 1 đỉnh u của clique (tập OM) và bỏ u (đi ngang),
+ *  - DROP: không còn nước nào thì bỏ 1 đỉnh ngẫu nhiên.
+ * Đỉnh vừa bị bỏ bị cấm thêm lại (tabu) trong tabuTenure + random(|OM| + 1) bước,
+ * trừ khi thêm nó cho clique lớn hơn clique tốt nhất đã gặp (aspiration).
+ *
+ * Mỗi lần thêm / bỏ đỉnh cập nhật số "đỉnh thiếu cạnh" miss[x] của mọi đỉnh ngoài clique qua các
+ * đỉnh không kề, nên chi phí O(n) mỗi bước — hợp với đồ thị dày (DenseGraph), không nên dùng trên
+ * SparseGraph rất lớn. Bất biến, dùng chung được giữa các luồng (bộ nhớ tạm cấp phát mỗi lần gọi).
+ */
+public final class LocalSearch {
+    private final int maxSteps;
+    private final int tabuTenure;
+
+    /** maxSteps: số bước tối đa cho mỗi cá thể; tabuTenure: số bước cấm tối thiểu của đỉnh vừa bỏ */
+    public LocalSearch(int maxSteps, int tabuTenure) {
+        if (maxSteps < 1) {
+            throw new IllegalArgumentException("Local search step budget must be positive: " + maxSteps);
+        }
+        if (tabuTenure < 0) {
+            throw new IllegalArgumentException("Tabu tenure must be non-negative: " + tabuTenure);
+        }
+        this.maxSteps = maxSteps;
+        this.tabuTenure = tabuTenure;
+    }
+
+    public int getMaxSteps() {
+        return maxSteps;
+    }
+
+    public int getTabuTenure() {
+        return tabuTenure;
+    }
+
+    /**
+     * Cải thiện clique (sửa tại chỗ): kết quả là clique lớn nhất gặp trong quá trình tìm, không nhỏ hơn ban đầu.
+     * clique phải là clique hợp lệ của graph. Trả về kích thước clique sau khi tìm.
+     */
+    public int improve(Graph graph, long[] clique, RandomGenerator rng) {
+        return new Run(graph, clique, rng).search();
+    }
+
+    /** Trạng thái của 1 lần tìm kiếm */
+    private final class Run {
+        private final Graph graph;
+        private final int n;
+        private final long[] best;
+        private final RandomGenerator rng;
+
+        private final long[] current;
+        private final long[] pa;        // đỉnh ngoài clique, miss = 0
+        private final long[] om;        // đỉnh ngoài clique, miss = 1
+        private final long[] neighbors; // bộ đệm N(v)
+        private final int[] miss;       // số đỉnh trong clique không kề x (chỉ có nghĩa với x ngoài clique)
+        private final int[] tabuUntil;
+        private final int[] groupHead;  // (1,2)-swap: danh sách đỉnh OM theo đỉnh thiếu cạnh u
+        private final int[] groupNext;
+        private final int[] missingOf;  // (1,2)-swap: đỉnh thiếu cạnh của từng đỉnh OM
+        private int size;
+        private int bestSize;
+        private int step;
+
+        Run(Graph graph, long[] clique, RandomGenerator rng) {
+            this.graph = graph;
+            this.n = graph.size();
+            this.best = clique;
+            this.rng = rng;
+            this.current = clique.clone();
+            this.pa = new long[clique.length];
+            this.om = new long[clique.length];
+            this.neighbors = new long[clique.length];
+            this.miss = new int[n + 1];
+            this.tabuUntil = new int[n + 1];
+            this.groupHead = new int[n + 1];
+            this.groupNext = new int[n + 1];
+            this.missingOf = new int[n + 1];
+
+            size = BitWords.cardinality(current);
+            bestSize = size;
+            for (int x = 1; x <= n; x++) {
+                if (!BitWords.get(current, x)) {
+                    miss[x] = size - graph.countCommonNeighbors(x, current);
+                    updateSets(x);
+                }
+            }
+        }
+
+        int search() {
+            for (step = 0; step < maxSteps; step++) {
+                if (!tryAdd() && !trySwapOneTwo() && !trySwapOneOne()) {
+                    if (size == 0) {
+                        break;
+                    }
+                    int u = BitWords.selectSetBit(current, rng.nextInt(size));
+                    remove(u);
+                    makeTabu(u);
+                }
+                if (size > bestSize) {
+                    bestSize = size;
+                    System.arraycopy(current, 0, best, 0, best.length);
+                }
+            }
+            return bestSize;
+        }
+
+        // ====== CÁC NƯỚC ĐI ======
+
+        /** ADD: thêm 1 đỉnh ngẫu nhiên trong PA không bị cấm (hoặc bị cấm nhưng vượt best) */
+        private boolean tryAdd() {
+            boolean aspiration = size + 1 > bestSize;
+            int v = randomAllowed(pa, aspiration);
+            if (v < 0) {
+                return false;
+            }
+            add(v);
+            return true;
+        }
+
+        /** (1,2)-SWAP: tìm u trong clique và 2 đỉnh OM kề nhau cùng chỉ thiếu cạnh tới u */
+        private boolean trySwapOneTwo() {
+            boolean found = false;
+            int bestU = -1;
+            int bestV = -1;
+            int bestW = -1;
+            for (int v = BitWords.nextSetBit(om, 1); v >= 1; v = BitWords.nextSetBit(om, v + 1)) {
+                missingOf[v] = missingEndpoint(v);
+                groupHead[missingOf[v]] = 0;
+            }
+            for (int v = BitWords.nextSetBit(om, 1); v >= 1 && !found; v = BitWords.nextSetBit(om, v + 1)) {
+                if (tabuUntil[v] > step) {
+                    continue;
+                }
+                int u = missingOf[v];
+                for (int w = groupHead[u]; w != 0; w = groupNext[w]) {
+                    if (graph.isEdge(v, w)) {
+                        bestU = u;
+                        bestV = v;
+                        bestW = w;
+                        found = true;
+                        break;
+                    }
+                }
+                groupNext[v] = groupHead[u];
+                groupHead[u] = v;
+            }
+            if (!found) {
+                return false;
+            }
+            remove(bestU);
+            add(bestV);
+            add(bestW);
+            makeTabu(bestU);
+            return true;
+        }
+
+        /** (1,1)-SWAP: thêm 1 đỉnh OM ngẫu nhiên không bị cấm, bỏ đỉnh duy nhất nó không kề */
+        private boolean trySwapOneOne() {
+            int v = randomAllowed(om, false);
+            if (v < 0) {
+                return false;
+            }
+            int u = missingEndpoint(v);
+            remove(u);
+            add(v);
+            makeTabu(u);
+            return true;
+        }
+
+        // ====== CẬP NHẬT TRẠNG THÁI ======
+
+        private void add(int v) {
+            BitWords.set(current, v);
+            BitWords.clear(pa, v);
+            BitWords.clear(om, v);
+            size++;
+            forEachNonNeighbor(v, +1);
+        }
+
+        private void remove(int u) {
+            BitWords.clear(current, u);
+            size--;
+            forEachNonNeighbor(u, -1);
+            miss[u] = 0; // u kề mọi đỉnh còn lại của clique
+            updateSets(u);
+        }
+
+        /** miss[x] += delta với mọi x ngoài clique, x != v, không kề v */
+        private void forEachNonNeighbor(int v, int delta) {
+            graph.copyNeighborhood(v, neighbors);
+            for (int i = 0; i < neighbors.length; i++) {
+                long bits = ~(neighbors[i] | current[i]);
+                if (i == 0) bits &= ~1L; // bit 0 không phải đỉnh
+                while (bits != 0) {
+                    int x = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (x > n) break;
+                    if (x == v) continue;
+                    miss[x] += delta;
+                    updateSets(x);
+                }
+            }
+        }
+
+        private void updateSets(int x) {
+            if (miss[x] == 0) BitWords.set(pa, x); else BitWords.clear(pa, x);
+            if (miss[x] == 1) BitWords.set(om, x); else BitWords.clear(om, x);
+        }
+
+        private void makeTabu(int u) {
+            tabuUntil[u] = step + 1 + tabuTenure + rng.nextInt(BitWords.cardinality(om) + 1);
+        }
+
+        /** Đỉnh duy nhất của clique không kề v (v thuộc OM) */
+        private int missingEndpoint(int v) {
+            for (int u = BitWords.nextSetBit(current, 1); u >= 1; u = BitWords.nextSetBit(current, u + 1)) {
+                if (!graph.isEdge(u, v)) {
+                    return u;
+                }
+            }
+            throw new IllegalStateException("Vertex " + v + " is adjacent to the whole clique");
+        }
+
+        /** Chọn đều 1 đỉnh trong set không bị cấm (ignoreTabu: bỏ qua cấm), -1 nếu không có */
+        private int randomAllowed(long[] set, boolean ignoreTabu) {
+            int chosen = -1;
+            int seen = 0;
+            for (int v = BitWords.nextSetBit(set, 1); v >= 1; v = BitWords.nextSetBit(set, v + 1)) {
+                if (ignoreTabu || tabuUntil[v] <= step) {
+                    seen++;
+                    if (rng.nextInt(seen) == 0) {
+                        chosen = v;
+                    }
+                }
+            }
+            return chosen;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/** Chuỗi long không boxing (ví dụ thời gian nano giây theo thế hệ) — chế độ giữ dữ liệu: xem PrimitiveSeries */
+public final class LongSeries extends PrimitiveSeries {
+
+    private long[] values = new long[0];
+    private long last;
+
+    /** Giữ mọi mẫu */
+    public LongSeries() {
+        super(Retention.ALL, 0);
+    }
+
+    public LongSeries(Retention retention, int capacity) {
+        super(retention, capacity);
+    }
+
+    public void add(long value) {
+        int slot = nextSlot();
+        if (slot >= 0) {
+            values[slot] = value;
+        }
+        last = value;
+    }
+
+    public long get(int i) {
+        int p = physical(i);
+        return (p >= 0) ? values[p] : last;
+    }
+
+    /** Giá trị mới nhất (chuỗi rỗng: lỗi) */
+    public long getLast() {
+        return get(size() - 1);
+    }
+
+    @Override
+    public double getAsDouble(int i) {
+        return get(i);
+    }
+
+    /** View List chỉ đọc, không chép (boxing khi get) */
+    public List<Long> asList() {
+        return new View();
+    }
+
+    private final class View extends AbstractList<Long> implements RandomAccess {
+        @Override
+        public Long get(int index) {
+            return LongSeries.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return LongSeries.this.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return asList().toString();
+    }
+
+    @Override
+    protected int length() {
+        return values.length;
+    }
+
+    @Override
+    protected void resize(int newLength) {
+        values = Arrays.copyOf(values, newLength);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        values[to] = values[from];
+    }
+
+    // ====== CHECKPOINT ======
+
+    void write(ByteBuffer out) {
+        writeState(out);
+        for (int i = 0; i < keptCount(); i++) out.putLong(values[physical(i)]);
+        out.putLong(last);
+    }
+
+    static LongSeries read(ByteBuffer in) {
+        Retention retention = readRetention(in);
+        LongSeries s = new LongSeries(retention, in.getInt());
+        int kept = s.readState(in);
+        for (int i = 0; i < kept; i++) s.values[i] = in.getLong();
+        s.last = in.getLong();
+        return s;
+    }
+}
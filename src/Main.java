@@ -1,6 +1,6 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.awt.GraphicsEnvironment;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 
 public class Main {
@@ -8,64 +8,25 @@ public class Main {
 
         String inputFile = "input10.txt";
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile))) {
+        try {
 
             // ================== ĐỌC GRAPH ==================
-            String line = reader.readLine();
-            if (line == null) {
-                System.out.println("File input không có dữ liệu");
-                return;
-            }
-
-            int n = Integer.parseInt(line.trim());
-            if (n < 1) {
-                System.out.println("Số đỉnh phải >= 1");
-                return;
-            }
-
-            Graph g = new Graph(n);
-
-            line = reader.readLine();
-            if (line == null) {
-                System.out.println("Thiếu số cạnh trong file");
+            System.out.println("Đang đọc các cạnh từ file...");
+            GraphLoader.Result loaded;
+            try {
+                loaded = GraphLoader.load(inputFile);
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
                 return;
             }
-
-            int m = Integer.parseInt(line.trim());
-            if (m <= 0) {
-                System.out.println("Số cạnh phải > 0");
-                return;
+            for (String warning : loaded.getWarnings()) {
+                System.out.println(warning);
             }
+            Graph g = loaded.getGraph();
 
-            System.out.println("Đang đọc các cạnh từ file...");
-            for (int i = 0; i < m; i++) {
-                line = reader.readLine();
-                if (line == null) {
-                    System.out.println("Thiếu cạnh thứ " + (i + 1));
-                    break;
-                }
-
-                String[] tokens = line.trim().split("\\s+");
-                if (tokens.length < 2) {
-                    System.out.println("Dòng không hợp lệ: " + line + " (bỏ qua)");
-                    continue;
-                }
-
-                int u = Integer.parseInt(tokens[0]);
-                int v = Integer.parseInt(tokens[1]);
-
-                if (u < 1 || u > n || v < 1 || v > n) {
-                    System.out.println("Cạnh " + u + " " + v + " nằm ngoài phạm vi 1.." + n + " (bỏ qua)");
-                    continue;
-                }
-
-                if (u == v) {
-                    System.out.println("Bỏ qua self-loop: " + u + " " + v);
-                    continue;
-                }
-
-                g.addEdge(u, v);
-            }
+            // Các dòng sau phần cạnh: tham số GA theo thứ tự cố định
+            Iterator<String> params = loaded.getTrailingLines().iterator();
+            String line;
 
             // ================== ĐỌC THAM SỐ GA (NẾU CÓ) ==================
             int popSize          = 20;
@@ -80,43 +41,43 @@ public class Main {
 
             try {
                 // Dòng tiếp theo: kích thước quần thể
-                line = reader.readLine();
+                line = params.hasNext() ? params.next() : null;
                 if (line != null && !line.trim().isEmpty()) {
                     popSize = Integer.parseInt(line.trim());
                 }
 
                 // Dòng tiếp theo: số thế hệ tối đa
-                line = reader.readLine();
+                line = params.hasNext() ? params.next() : null;
                 if (line != null && !line.trim().isEmpty()) {
                     maxGenerations = Integer.parseInt(line.trim());
                 }
 
                 // Dòng tiếp theo: tỷ lệ đột biến
-                line = reader.readLine();
+                line = params.hasNext() ? params.next() : null;
                 if (line != null && !line.trim().isEmpty()) {
                     mutationRate = Double.parseDouble(line.trim());
                 }
 
                 // Dòng tiếp theo: tỷ lệ lai ghép
-                line = reader.readLine();
+                line = params.hasNext() ? params.next() : null;
                 if (line != null && !line.trim().isEmpty()) {
                     crossoverRate = Double.parseDouble(line.trim());
                 }
 
                 // Dòng tiếp theo: số cá thể ưu tú
-                line = reader.readLine();
+                line = params.hasNext() ? params.next() : null;
                 if (line != null && !line.trim().isEmpty()) {
                     eliteCount = Integer.parseInt(line.trim());
                 }
 
                 // Dòng tiếp theo: ngưỡng kiên nhẫn (patience)
-                line = reader.readLine();
+                line = params.hasNext() ? params.next() : null;
                 if (line != null && !line.trim().isEmpty()) {
                     patience = Integer.parseInt(line.trim());
                 }
 
                 // Dòng tiếp theo: ngưỡng đa dạng
-                line = reader.readLine();
+                line = params.hasNext() ? params.next() : null;
                 if (line != null && !line.trim().isEmpty()) {
                     diversityThreshold = Double.parseDouble(line.trim());
                 }
@@ -140,6 +101,8 @@ public class Main {
             );
 
             ga.setEnableLogging(true);      // nếu muốn xem log chi tiết trong GA
+            GaMetrics metrics = new GaMetrics();
+            ga.setMetrics(metrics);         // đo thời gian từng pha (bỏ dòng này để tắt)
 
             System.out.println("\n=== CHẠY CHƯƠNG TRÌNH ===");
             Individual best = ga.run();
@@ -147,16 +110,19 @@ public class Main {
 
             int actualGenerations = ga.getActualGenerations();
             double finalDiversity = ga.getFinalDiversity();
+            double finalHamming   = ga.getFinalMeanHamming();
             boolean earlyStopped  = ga.isEarlyStopped();
             String stopReason     = ga.getStopReason();
 
             // ================== VẼ BIỂU ĐỒ FITNESS THEO THẾ HỆ ==================
-            List<Integer> genHistory      = ga.getGenHistory();
-            List<Integer> bestFitnessHist = ga.getBestFitnessHistory();
+            IntSeries genHistory      = ga.getGenHistory();
+            IntSeries bestFitnessHist = ga.getBestFitnessHistory();
 
-            List<Integer> genTimeMsHist   = ga.getGenTimeMsHistory();
+            IntSeries genTimeMsHist   = ga.getGenTimeMsHistory();
+            // Không có màn hình (server, -Djava.awt.headless=true): chỉ lưu file, không mở cửa sổ
+            boolean headless = GraphicsEnvironment.isHeadless();
             if (!genHistory.isEmpty()) {
-                FitnessLineChart.show(genHistory, bestFitnessHist);
+                if (!headless) FitnessLineChart.show(genHistory, bestFitnessHist);
                 FitnessLineChart.savePng(genHistory, bestFitnessHist, "fitness_by_generation.png");
                 System.out.println("Đã lưu biểu đồ fitness_by_generation.png");
             } else {
@@ -164,7 +130,7 @@ public class Main {
             }
             // ================== VẼ BIỂU ĐỒ THỜI GIAN THEO THẾ HỆ ==================
             if (!genTimeMsHist.isEmpty() && genTimeMsHist.size() == genHistory.size()) {
-                TimeLineChart.show(genHistory, genTimeMsHist);
+                if (!headless) TimeLineChart.show(genHistory, genTimeMsHist);
                 TimeLineChart.savePng(genHistory, genTimeMsHist, "time_by_generation.png");
                 System.out.println("Đã lưu biểu đồ time_by_generation.png");
             } else if (!genTimeMsHist.isEmpty()) {
@@ -189,12 +155,30 @@ public class Main {
 
             System.out.println("\n=== Kết quả ===");
             System.out.println("Best fitness: " + best.getFitness());
+            int upperBound = ga.getUpperBound();
+            if (upperBound >= 0) {
+                System.out.println("Cận trên ω(G): " + upperBound
+                        + " (khoảng cách: " + (upperBound - best.getFitness()) + ")");
+            }
             System.out.println("Thời gian thực thi: " + String.format("%.4f", execTime) + " s");
+            List<GeneticAlgorithm.TracePoint> trace = ga.getTimeToBestTrace();
+            if (!trace.isEmpty()) {
+                GeneticAlgorithm.TracePoint reached = trace.get(trace.size() - 1);
+                System.out.println("Đạt best sau: " + reached.getTimeMs() + " ms (thế hệ " + reached.getGeneration()
+                        + ", " + trace.size() + " lần cải thiện)");
+            }
             System.out.println("Số thế hệ thực tế: " + actualGenerations);
             System.out.println("Độ đa dạng cuối cùng: " + String.format("%.4f", finalDiversity));
+            System.out.println("Hamming trung bình cuối cùng: " + String.format("%.4f", finalHamming));
+            System.out.println("Cache đánh giá: trúng " + ga.getCacheHits() + ", trượt " + ga.getCacheMisses());
+            System.out.println("Số đỉnh bị loại (k-core): " + ga.getRemovedVertices()
+                    + " (còn " + ga.getWorkingGraphSize() + "/" + g.size() + ")");
             System.out.println("Dừng sớm?: " + earlyStopped);
             System.out.println("Lý do dừng: " + stopReason);
 
+            System.out.println("\n=== Thời gian theo pha ===");
+            System.out.print(metrics.snapshot().format());
+
         } catch (IOException e) {
             System.out.println("Lỗi đọc file input: " + e.getMessage());
             e.printStackTrace();
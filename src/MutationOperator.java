@@ -0,0 +1,9 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Toán tử đột biến: lật mỗi gen 1..n độc lập với xác suất mutationRate, sửa trực tiếp cá thể
+ * (qua Individual.flipGene để fingerprint luôn khớp). Cài đặt sẵn có trong StandardMutation.
+ */
+public interface MutationOperator {
+    void mutate(Individual individual, double mutationRate, RandomGenerator rand);
+}
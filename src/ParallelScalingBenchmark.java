@@ -0,0 +1,66 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Đo khả năng mở rộng của chế độ sinh con song song trong GeneticAlgorithm:
+ * chạy cùng một cấu hình (cùng seed) với 1, 2, 4, ... luồng và in ra số thế hệ / giây.
+ * Đồng thời kiểm tra clique tốt nhất giống hệt nhau ở mọi số luồng (tính tất định theo slot).
+ *
+ * Tham số dòng lệnh (tùy chọn): n mậtĐộ kíchThướcQuầnThể sốThếHệ sốLuồngTốiĐa
+ */
+public final class ParallelScalingBenchmark {
+
+    private ParallelScalingBenchmark() {}
+
+    public static void main(String[] args) {
+        int n          = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        double density = args.length > 1 ? Double.parseDouble(args[1]) : 0.5;
+        int popSize    = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int gens       = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        int maxThreads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long seed = 12345L;
+
+        Graph g = randomGraph(n, density, seed);
+        System.out.println("Đồ thị ngẫu nhiên G(" + n + ", " + density + "), quần thể " + popSize + ", " + gens + " thế hệ");
+        System.out.println("Threads | Gen/s     | Speedup | Best | Giống kết quả 1 luồng");
+
+        // Chạy khởi động để JIT biên dịch các hàm nóng
+        newGa(g, popSize, Math.min(gens, 5), 1, seed).run();
+
+        double baseRate = 0;
+        long[] baseGenes = null;
+        for (int t = 1; t <= maxThreads; t = Math.min(t * 2, maxThreads)) {
+            GeneticAlgorithm ga = newGa(g, popSize, gens, t, seed);
+            Individual best = ga.run();
+            double rate = ga.getActualGenerations() / Math.max(1e-9, ga.getExecutionTime());
+            if (t == 1) {
+                baseRate = rate;
+                baseGenes = best.getGeneWords();
+            }
+            boolean same = Arrays.equals(baseGenes, best.getGeneWords());
+            System.out.printf("%7d | %9.2f | %7.2f | %4d | %s%n", t, rate, rate / baseRate, best.getFitness(), same);
+            if (t == maxThreads) break;
+        }
+    }
+
+    private static GeneticAlgorithm newGa(Graph g, int popSize, int gens, int threads, long seed) {
+        GeneticAlgorithm ga = new GeneticAlgorithm(g, popSize, gens, 0.05, 0.7, 2, 0, 0.0, 0.0, 1.0);
+        ga.setEnableLogging(false);
+        ga.setSeed(seed);
+        ga.setThreads(threads);
+        return ga;
+    }
+
+    static Graph randomGraph(int n, double density, long seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        DenseGraph g = new DenseGraph(n);
+        for (int u = 1; u <= n; u++) {
+            for (int v = u + 1; v <= n; v++) {
+                if (r.nextDouble() < density) {
+                    g.addEdge(u, v);
+                }
+            }
+        }
+        return g;
+    }
+}
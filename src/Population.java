@@ -1,6 +1,7 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class Population {
     private final List<Individual> individuals;
@@ -9,18 +10,34 @@ public class Population {
      * Khởi tạo quần thể gồm size cá thể, mỗi cá thể là một chuỗi nhị phân ngẫu nhiên.
      * Sử dụng đối tượng Random bên ngoài để đồng nhất nguồn ngẫu nhiên trong toàn bộ GA.
      */
-    public Population(Graph graph, int size, Random rand) {
+    public Population(Graph graph, int size, RandomGenerator rand) {
+        this(graph, size, rand, ExpandPolicy.RANDOM);
+    }
+
+    /** Như trên nhưng chỉ định chiến lược mở rộng clique khi đánh giá các cá thể ban đầu */
+    public Population(Graph graph, int size, RandomGenerator rand, ExpandPolicy expandPolicy) {
         if (size <= 0) {
             throw new IllegalArgumentException("Population size must be greater than 0");
         }
         individuals = new ArrayList<>();
         for (int i = 0; i < size; i++) {
-            Individual ind = new Individual(graph, rand);
+            Individual ind = new Individual(graph, rand, expandPolicy);
             individuals.add(ind);
         }
         sortByFitness();
     }
 
+    /**
+     * Tạo quần thể từ danh sách cá thể đã được đánh giá sẵn (ví dụ sinh song song trong GA).
+     */
+    public Population(List<Individual> individuals) {
+        if (individuals.isEmpty()) {
+            throw new IllegalArgumentException("Population size must be greater than 0");
+        }
+        this.individuals = new ArrayList<>(individuals);
+        sortByFitness();
+    }
+
     /**
      * Constructor giữ lại để tương thích với mã cũ (sử dụng Random mới cho mỗi Population).
      * Khuyến nghị: trong GA hãy dùng constructor có Random.
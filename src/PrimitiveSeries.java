@@ -0,0 +1,203 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Phần chung của IntSeries / LongSeries: chuỗi giá trị nguyên thủy ghi theo thứ tự (mẫu thứ 0, 1, 2...),
+ * không boxing, chi phí ghi O(1) (khấu hao), với 3 chế độ giữ dữ liệu:
+ *  - ALL:      giữ mọi mẫu, mảng tự nới gấp đôi,
+ *  - RING:     chỉ giữ capacity mẫu gần nhất (vòng tròn),
+ *  - DECIMATE: giữ tối đa capacity mẫu cách đều (mẫu chia hết cho stride); đầy thì bỏ 1 nửa và gấp đôi
+ *              stride — thưa dần theo lũy thừa 2 nhưng luôn phủ cả lần chạy. Mẫu mới nhất luôn đọc được
+ *              (giữ riêng nếu không rơi đúng lưới).
+ * Vị trí i (0..size()-1) là các mẫu đang giữ theo thứ tự; sampleIndex(i) cho biết đó là mẫu thứ mấy.
+ * Hai chuỗi cùng chế độ + capacity và được ghi cùng số lần thì luôn giữ cùng các mẫu (dùng làm cặp x / y).
+ */
+public abstract class PrimitiveSeries {
+
+    public enum Retention { ALL, RING, DECIMATE }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Retention retention;
+    private final int capacity;
+    private long total;
+    private int kept;
+    private int head;       // RING: vị trí vật lý của mẫu cũ nhất khi đã đầy
+    private long stride = 1; // DECIMATE
+    private boolean tail;    // DECIMATE: mẫu mới nhất nằm ngoài lưới, giữ riêng
+
+    protected PrimitiveSeries(Retention retention, int capacity) {
+        if (retention != Retention.ALL && capacity < 2) {
+            throw new IllegalArgumentException("Series capacity must be at least 2: " + capacity);
+        }
+        this.retention = retention;
+        this.capacity = (retention == Retention.ALL) ? Integer.MAX_VALUE : capacity;
+    }
+
+    // ====== PHẦN LỚP CON CÀI ĐẶT ======
+
+    /** Độ dài mảng giá trị hiện tại */
+    protected abstract int length();
+
+    /** Nới mảng giá trị lên newLength, giữ nguyên nội dung */
+    protected abstract void resize(int newLength);
+
+    /** Chép giá trị ở vị trí vật lý from sang to */
+    protected abstract void move(int from, int to);
+
+    /** Giá trị tại vị trí i dưới dạng double (cho biểu đồ) */
+    public abstract double getAsDouble(int i);
+
+    // ====== GHI ======
+
+    /**
+     * Gọi 1 lần cho mỗi mẫu mới: trả về vị trí vật lý cần ghi giá trị, hoặc -1 nếu mẫu chỉ được giữ
+     * làm "mẫu mới nhất" (lớp con luôn lưu lại giá trị mới nhất).
+     */
+    protected final int nextSlot() {
+        long sample = total++;
+        switch (retention) {
+            case RING:
+                if (kept == capacity) {
+                    int slot = head;
+                    head = (head + 1 == capacity) ? 0 : head + 1;
+                    return slot;
+                }
+                break;
+            case DECIMATE:
+                if (sample % stride != 0) {
+                    tail = true;
+                    return -1;
+                }
+                if (kept == capacity) {
+                    // Giữ các vị trí chẵn (mẫu chia hết cho 2 * stride)
+                    for (int i = 1; 2 * i < kept; i++) {
+                        move(2 * i, i);
+                    }
+                    kept = (kept + 1) / 2;
+                    stride *= 2;
+                    if (sample % stride != 0) {
+                        tail = true;
+                        return -1;
+                    }
+                }
+                tail = false;
+                break;
+            default:
+                break;
+        }
+        if (kept == length()) {
+            long grown = Math.max(INITIAL_CAPACITY, 2L * kept);
+            resize((int) Math.min(grown, Math.min(capacity, Integer.MAX_VALUE - 8)));
+        }
+        return kept++;
+    }
+
+    public void clear() {
+        total = 0;
+        kept = 0;
+        head = 0;
+        stride = 1;
+        tail = false;
+    }
+
+    // ====== ĐỌC ======
+
+    /** Vị trí vật lý của phần tử i, -1 nếu là mẫu mới nhất giữ riêng */
+    protected final int physical(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size());
+        }
+        if (i >= kept) {
+            return -1;
+        }
+        if (retention == Retention.RING && head > 0) {
+            int p = head + i;
+            return (p >= capacity) ? p - capacity : p;
+        }
+        return i;
+    }
+
+    /** Số mẫu nằm trong mảng giá trị (không tính mẫu mới nhất giữ riêng) */
+    protected final int keptCount() {
+        return kept;
+    }
+
+    /** Số mẫu đang giữ (đọc được) */
+    public int size() {
+        return kept + (tail ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return total == 0;
+    }
+
+    /** Tổng số mẫu đã ghi (kể cả mẫu đã bị bỏ) */
+    public long getTotalAdded() {
+        return total;
+    }
+
+    /** Mẫu thứ mấy (tính từ 0) đang nằm ở vị trí i */
+    public long sampleIndex(int i) {
+        physical(i); // kiểm tra biên
+        if (i >= kept) {
+            return total - 1;
+        }
+        return switch (retention) {
+            case ALL -> i;
+            case RING -> total - kept + i;
+            case DECIMATE -> i * stride;
+        };
+    }
+
+    /** Vị trí đang giữ mẫu thứ sample, -1 nếu mẫu đó đã bị bỏ (hoặc chưa ghi) */
+    public int indexOf(long sample) {
+        if (sample < 0 || sample >= total) {
+            return -1;
+        }
+        switch (retention) {
+            case ALL:
+                return (int) sample;
+            case RING:
+                long first = total - kept;
+                return (sample >= first) ? (int) (sample - first) : -1;
+            default:
+                if (sample % stride == 0 && sample / stride < kept) {
+                    return (int) (sample / stride);
+                }
+                return (tail && sample == total - 1) ? kept : -1;
+        }
+    }
+
+    public Retention getRetention() { return retention; }
+    /** Số mẫu tối đa được giữ (ALL: không giới hạn) */
+    public int getCapacity() { return capacity; }
+
+    // ====== CHECKPOINT ======
+
+    /** Ghi chế độ + trạng thái; giá trị do lớp con ghi ngay sau theo thứ tự logic */
+    protected final void writeState(ByteBuffer out) {
+        out.put((byte) retention.ordinal());
+        out.putInt(capacity);
+        out.putLong(total);
+        out.putInt(kept);
+        out.putLong(stride);
+        out.put((byte) (tail ? 1 : 0));
+    }
+
+    /** Đọc trạng thái đã ghi bằng writeState vào chuỗi rỗng cùng chế độ; trả về số giá trị cần đọc tiếp */
+    protected final int readState(ByteBuffer in) {
+        total = in.getLong();
+        kept = in.getInt();
+        stride = in.getLong();
+        tail = in.get() != 0;
+        head = 0;
+        if (kept > length()) {
+            resize(kept);
+        }
+        return kept;
+    }
+
+    protected static Retention readRetention(ByteBuffer in) {
+        return Retention.values()[in.get()];
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Chọn theo hạng: cá thể ở vị trí i (0 = tốt nhất) trong quần thể n cá thể có trọng số n - i.
+ * Trọng số luôn tính theo hạng trong cả quần thể, kể cả khi chỉ chọn trong một tập con vị trí,
+ * nên chọn trên tập con = chọn theo hạng có điều kiện.
+ *
+ * Cả quần thể: tổng tiền tố có dạng đóng nên mỗi lần select là O(1), prepare không cấp phát.
+ * Tập con: prepare dựng mảng tổng tiền tố O(n) 1 lần, mỗi lần select tìm kiếm nhị phân O(log n).
+ */
+public final class RankSelection implements SelectionStrategy {
+
+    @Override
+    public Selector prepare(List<Individual> sorted, int[] positions) {
+        int n = sorted.size();
+        if (positions == null) {
+            if (n == 0) {
+                throw new IllegalArgumentException("No individuals to select from");
+            }
+            long total = (long) n * (n + 1) / 2;
+            return rng -> sorted.get(rankFor(rng.nextLong(total), n));
+        }
+        if (positions.length == 0) {
+            throw new IllegalArgumentException("No individuals to select from");
+        }
+
+        long[] cumulative = new long[positions.length];
+        long acc = 0;
+        for (int j = 0; j < positions.length; j++) {
+            acc += n - positions[j];
+            cumulative[j] = acc;
+        }
+        long total = acc;
+
+        return rng -> {
+            long r = rng.nextLong(total);
+            // vị trí đầu tiên có cumulative > r
+            int j = Arrays.binarySearch(cumulative, r + 1);
+            if (j < 0) j = -j - 1;
+            return sorted.get(positions[j]);
+        };
+    }
+
+    /**
+     * Vị trí j nhỏ nhất có cum(j) > r với cum(j) = (j + 1) * n - j * (j + 1) / 2
+     * (tổng trọng số của j + 1 vị trí đầu): nghiệm phương trình bậc 2 rồi chỉnh lại bằng số nguyên.
+     */
+    static int rankFor(long r, int n) {
+        double b = 2.0 * n + 1;
+        int j = (int) Math.max(0, Math.floor((b - Math.sqrt(b * b - 8.0 * r)) / 2.0) - 1);
+        j = Math.min(j, n - 1);
+        while (j > 0 && cumulative(j - 1, n) > r) j--;
+        while (cumulative(j, n) <= r) j++;
+        return j;
+    }
+
+    private static long cumulative(int j, int n) {
+        return (long) (j + 1) * n - (long) j * (j + 1) / 2;
+    }
+}
@@ -0,0 +1,166 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * So sánh GA có / không đánh số lại đỉnh (VertexOrdering) trên các file input:
+ *  - thời gian đánh giá 1 bộ gen ngẫu nhiên 50% (repair + expand) trên đồ thị đã đánh số lại,
+ *  - hội tụ: best cuối, thế hệ và thời gian (tổng thời gian các thế hệ) lần đầu đạt best cuối,
+ *    trung bình qua nhiều seed.
+ *
+ * Tham số dòng lệnh (tùy chọn): danhSáchInput(phẩy) kíchThướcQuầnThể sốThếHệ sốSeed
+ *
+ * Kết quả tham khảo với tham số mặc định (input1..10, quần thể 100, 200 thế hệ, 5 seed; JDK 17, 1 luồng GA).
+ * Eval us của dòng đầu tiên (input1 / NONE) còn chịu thời gian khởi động JIT.
+ * <pre>
+ *   Input        | Order      | Eval us | Best  | GenToBest | MsToBest
+ *   input1.txt   | NONE       |  137.26 |  34.0 |       2.4 |     11.8
+ *   input1.txt   | DEGREE     |   69.54 |  34.0 |       5.0 |     14.2
+ *   input1.txt   | DEGENERACY |   74.24 |  34.0 |       7.0 |     14.6
+ *   input1.txt   | CORE_BFS   |   69.23 |  34.0 |       3.4 |      7.6
+ *   input2.txt   | NONE       |  370.82 |  43.2 |      13.2 |     61.2
+ *   input2.txt   | DEGREE     |  307.13 |  43.4 |       9.4 |     63.8
+ *   input2.txt   | DEGENERACY |  366.36 |  43.6 |      10.8 |     62.2
+ *   input2.txt   | CORE_BFS   |  328.29 |  44.0 |      32.6 |    156.6
+ *   input3.txt   | NONE       |  182.97 |  16.0 |      15.6 |     19.2
+ *   input3.txt   | DEGREE     |  177.13 |  15.8 |      21.0 |     24.6
+ *   input3.txt   | DEGENERACY |  166.59 |  16.0 |       6.6 |     10.6
+ *   input3.txt   | CORE_BFS   |  163.00 |  15.6 |       6.8 |      9.2
+ *   input4.txt   | NONE       |  143.88 |  11.0 |       2.4 |      2.4
+ *   input4.txt   | DEGREE     |  139.95 |  10.8 |       2.2 |      3.0
+ *   input4.txt   | DEGENERACY |  142.36 |  10.6 |       3.2 |      3.2
+ *   input4.txt   | CORE_BFS   |  143.45 |  10.6 |       2.0 |      2.8
+ *   input5.txt   | NONE       |  694.69 |  23.2 |      12.2 |     67.0
+ *   input5.txt   | DEGREE     |  720.81 |  23.0 |       8.4 |     41.8
+ *   input5.txt   | DEGENERACY |  634.63 |  23.2 |       5.2 |     33.2
+ *   input5.txt   | CORE_BFS   |  730.94 |  23.0 |       8.8 |     47.8
+ *   input6.txt   | NONE       | 1404.62 |  24.0 |       8.4 |     59.4
+ *   input6.txt   | DEGREE     |  954.20 |  23.8 |      13.6 |     92.2
+ *   input6.txt   | DEGENERACY |  961.08 |  23.4 |       5.6 |     38.6
+ *   input6.txt   | CORE_BFS   | 1044.02 |  24.0 |       5.2 |     32.6
+ *   input7.txt   | NONE       |  262.85 |  44.0 |      10.8 |     44.6
+ *   input7.txt   | DEGREE     |  231.08 |  43.2 |       6.2 |     23.8
+ *   input7.txt   | DEGENERACY |  232.12 |  44.0 |       5.2 |     18.6
+ *   input7.txt   | CORE_BFS   |  234.50 |  44.0 |      12.0 |     44.4
+ *   input8.txt   | NONE       |  252.21 |  55.0 |       3.2 |     13.4
+ *   input8.txt   | DEGREE     |  227.52 |  55.0 |       1.2 |      4.6
+ *   input8.txt   | DEGENERACY |  224.28 |  55.0 |       1.8 |      6.6
+ *   input8.txt   | CORE_BFS   |  234.94 |  55.0 |       2.4 |      8.8
+ *   input9.txt   | NONE       | 4406.74 |  14.2 |      14.4 |    279.2
+ *   input9.txt   | DEGREE     | 5789.54 |  14.0 |      63.2 |   1202.8
+ *   input9.txt   | DEGENERACY | 4800.12 |  14.0 |      44.4 |    919.6
+ *   input9.txt   | CORE_BFS   | 5340.46 |  14.0 |      44.0 |    860.8
+ *   input10.txt  | NONE       | 1181.93 |  65.0 |      10.6 |    129.8
+ *   input10.txt  | DEGREE     | 1437.68 |  65.0 |       6.6 |     89.8
+ *   input10.txt  | DEGENERACY | 1085.01 |  65.0 |       9.0 |    106.0
+ *   input10.txt  | CORE_BFS   | 1154.32 |  65.0 |      11.4 |    150.6
+ * </pre>
+ * Tóm lại: thời gian đánh giá lệch trong khoảng ±20% tùy input (input6 nhanh hơn ~30%, input9 chậm hơn 9-31%);
+ * thời gian tới best cải thiện ở input3, 5, 6, 7, 8, 10 (thường tốt nhất là DEGENERACY) nhưng chậm hơn rõ ở
+ * input9 (279 ms -> 860+ ms) và với CORE_BFS ở input2 => để mặc định tắt.
+ */
+public final class ReorderingBenchmark {
+
+    private ReorderingBenchmark() {}
+
+    private static final int GENOMES = 64;
+    private static volatile long sink;
+
+    public static void main(String[] args) throws IOException {
+        List<String> inputs = new ArrayList<>();
+        if (args.length > 0) {
+            inputs.addAll(List.of(args[0].split(",")));
+        } else {
+            for (int i = 1; i <= 10; i++) inputs.add("input" + i + ".txt");
+        }
+        int popSize = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int gens    = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int seeds   = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        VertexOrdering.Order[] orders = new VertexOrdering.Order[VertexOrdering.Order.values().length + 1];
+        System.arraycopy(VertexOrdering.Order.values(), 0, orders, 1, orders.length - 1);
+
+        System.out.println("Input        | Order      | Eval us | Best  | GenToBest | MsToBest");
+        for (String input : inputs) {
+            Graph g = GraphLoader.load(input).getGraph();
+            for (VertexOrdering.Order order : orders) {
+                Graph working = (order == null) ? g : VertexOrdering.relabel(g, order).getGraph();
+                double evalUs = measureEvaluation(working);
+
+                double best = 0;
+                double genToBest = 0;
+                double msToBest = 0;
+                for (int s = 0; s < seeds; s++) {
+                    GeneticAlgorithm ga = new GeneticAlgorithm(g, popSize, gens, 0.05, 0.7, 2, 0, 0.0, 0.0, 1.0);
+                    ga.setEnableLogging(false);
+                    ga.setSeed(1000L + s);
+                    ga.setVertexOrdering(order);
+                    Individual result = ga.run();
+                    if (!isClique(g, result.getGeneWords())) {
+                        throw new IllegalStateException("Invalid clique for " + input + " / " + order);
+                    }
+                    IntSeries history = ga.getBestFitnessHistory();
+                    IntSeries times = ga.getGenTimeMsHistory();
+                    int finalBest = result.getFitness();
+                    long elapsed = 0;
+                    int reachedAt = 0;
+                    for (int i = 0; i < history.size(); i++) {
+                        elapsed += times.get(i);
+                        if (history.get(i) >= finalBest) {
+                            reachedAt = i + 1;
+                            break;
+                        }
+                    }
+                    best += finalBest;
+                    genToBest += reachedAt;
+                    msToBest += (reachedAt > 0) ? elapsed : 0;
+                }
+                System.out.printf("%-12s | %-10s | %7.2f | %5.1f | %9.1f | %8.1f%n",
+                        input, (order == null) ? "NONE" : order.name(), evalUs,
+                        best / seeds, genToBest / seeds, msToBest / seeds);
+            }
+        }
+    }
+
+    private static boolean isClique(Graph g, long[] genes) {
+        for (int u = BitWords.nextSetBit(genes, 1); u >= 1; u = BitWords.nextSetBit(genes, u + 1)) {
+            for (int v = BitWords.nextSetBit(genes, u + 1); v >= 1; v = BitWords.nextSetBit(genes, v + 1)) {
+                if (!g.isEdge(u, v)) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Thời gian trung bình (micro giây) cho 1 lần calculateFitness trên bộ gen ngẫu nhiên */
+    private static double measureEvaluation(Graph g) {
+        SplittableRandom r = new SplittableRandom(42);
+        List<long[]> genomes = new ArrayList<>();
+        for (int i = 0; i < GENOMES; i++) {
+            long[] genes = new long[g.wordCount()];
+            for (int v = 1; v <= g.size(); v++) {
+                if (r.nextBoolean()) BitWords.set(genes, v);
+            }
+            genomes.add(genes);
+        }
+        // Khởi động JIT rồi đo khoảng 200 ms
+        runEvaluations(g, genomes, r, 2 * GENOMES);
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            runEvaluations(g, genomes, r, GENOMES);
+            ops += GENOMES;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < 200_000_000L);
+        return elapsed / 1000.0 / ops;
+    }
+
+    private static void runEvaluations(Graph g, List<long[]> genomes, SplittableRandom r, int count) {
+        for (int i = 0; i < count; i++) {
+            Individual ind = Individual.fromGenes(g, genomes.get(i % genomes.size()).clone());
+            ind.calculateFitness(r, ExpandPolicy.RANDOM);
+            sink += ind.getFitness();
+        }
+    }
+}
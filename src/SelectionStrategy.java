@@ -0,0 +1,19 @@
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Chiến lược chọn bố mẹ. Mỗi thế hệ GA gọi prepare đúng 1 lần trên quần thể đã sắp xếp
+ * (fitness giảm dần), sau đó các slot gọi Selector.select đồng thời — Selector chỉ đọc nên an toàn đa luồng.
+ *
+ * positions là danh sách vị trí (tăng dần) được phép chọn, ví dụ các cá thể có indexScore
+ * trong [indexMin, indexMax]; null = cả quần thể (khi đó prepare không duyệt quần thể, O(1)).
+ */
+public interface SelectionStrategy {
+
+    Selector prepare(List<Individual> sorted, int[] positions);
+
+    /** Bộ chọn đã dựng sẵn cho 1 thế hệ */
+    interface Selector {
+        Individual select(RandomGenerator rng);
+    }
+}
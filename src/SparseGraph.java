@@ -0,0 +1,200 @@
+import java.util.Arrays;
+
+/**
+ * Đồ thị thưa dạng CSR: láng giềng của đỉnh v là adj[offsets[v] .. offsets[v + 1]),
+ * đã sắp xếp tăng dần và không trùng lặp. Bộ nhớ O(n + m) thay vì n²/8 byte của DenseGraph.
+ *
+ * isEdge dùng tìm kiếm nhị phân trên danh sách ngắn hơn; các thao tác tập hợp trộn (merge)
+ * danh sách kề đã sắp xếp với các word của tập đỉnh, chi phí O(deg(v) + số word).
+ * Tạo qua GraphBuilder hoặc BinaryGraphFormat.
+ */
+public class SparseGraph implements Graph {
+    private final int n;
+    private final int words;
+    private final int[] offsets;
+    private final int[] adj;
+
+    /**
+     * offsets có n + 2 phần tử (offsets[1..n+1]), adj chứa các danh sách kề đã sắp xếp, không trùng,
+     * đối xứng và không có self-loop — GraphBuilder đảm bảo các điều kiện này.
+     */
+    SparseGraph(int n, int[] offsets, int[] adj) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Number of vertices must be positive.");
+        }
+        if (offsets.length != n + 2 || offsets[n + 1] > adj.length) {
+            throw new IllegalArgumentException("Invalid CSR offsets for " + n + " vertices");
+        }
+        this.n = n;
+        this.words = BitWords.wordsFor(n);
+        this.offsets = offsets;
+        this.adj = adj;
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int wordCount() {
+        return words;
+    }
+
+    @Override
+    public int degree(int v) {
+        checkVertex(v);
+        return offsets[v + 1] - offsets[v];
+    }
+
+    @Override
+    public long edgeCount() {
+        return (offsets[n + 1] - offsets[1]) / 2L;
+    }
+
+    @Override
+    public boolean isEdge(int u, int v) {
+        if (u < 1 || u > n || v < 1 || v > n) {
+            throw new IllegalArgumentException("Vertex index out of bounds: " + u + ", " + v + " (valid: 1-" + n + ")");
+        }
+        // tìm trong danh sách ngắn hơn
+        if (offsets[u + 1] - offsets[u] > offsets[v + 1] - offsets[v]) {
+            int t = u;
+            u = v;
+            v = t;
+        }
+        int i = lowerBound(u, v);
+        return i < offsets[u + 1] && adj[i] == v;
+    }
+
+    @Override
+    public int nextNeighbor(int v, int from) {
+        int i = lowerBound(v, from);
+        return (i < offsets[v + 1]) ? adj[i] : -1;
+    }
+
+    // ====== THAO TÁC TẬP HỢP (TRỘN DANH SÁCH KỀ VỚI CÁC WORD) ======
+
+    @Override
+    public void copyNeighborhood(int v, long[] out) {
+        Arrays.fill(out, 0L);
+        for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+            int u = adj[i];
+            if ((u >>> 6) < out.length) {
+                BitWords.set(out, u);
+            }
+        }
+    }
+
+    @Override
+    public void andNeighborhood(int v, long[] set, long[] out) {
+        Arrays.fill(out, 0L);
+        for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+            int u = adj[i];
+            int wi = u >>> 6;
+            if (wi < set.length && wi < out.length && (set[wi] & (1L << u)) != 0) {
+                out[wi] |= 1L << u;
+            }
+        }
+    }
+
+    @Override
+    public void retainNeighborhood(int v, long[] set) {
+        int p = offsets[v];
+        int end = offsets[v + 1];
+        for (int wi = 0; wi < set.length; wi++) {
+            long rowWord = 0L;
+            int limit = (wi + 1) << 6;
+            while (p < end && adj[p] < limit) {
+                rowWord |= 1L << adj[p];
+                p++;
+            }
+            set[wi] &= rowWord;
+        }
+    }
+
+    @Override
+    public int countCommonNeighbors(int v, long[] set) {
+        int c = 0;
+        for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+            int u = adj[i];
+            int wi = u >>> 6;
+            if (wi < set.length && (set[wi] & (1L << u)) != 0) {
+                c++;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public int listCommonNeighbors(int v, long[] set, int[] out) {
+        int c = 0;
+        for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+            int u = adj[i];
+            int wi = u >>> 6;
+            if (wi < set.length && (set[wi] & (1L << u)) != 0) {
+                out[c++] = u;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public boolean isSubsetOfNeighborhood(long[] set, int v) {
+        int p = offsets[v];
+        int end = offsets[v + 1];
+        int vw = v >>> 6;
+        for (int wi = 0; wi < set.length; wi++) {
+            if (set[wi] == 0) {
+                continue;
+            }
+            long rowWord = 0L;
+            int base = wi << 6;
+            int limit = base + 64;
+            while (p < end && adj[p] < base) p++;
+            while (p < end && adj[p] < limit) {
+                rowWord |= 1L << adj[p];
+                p++;
+            }
+            long missing = set[wi] & ~rowWord;
+            if (wi == vw) {
+                missing &= ~(1L << v);
+            }
+            if (missing != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ====== TRUY CẬP CSR (BinaryGraphFormat) ======
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] adjacency() {
+        return adj;
+    }
+
+    /** Vị trí đầu tiên trong danh sách kề của v có giá trị >= x */
+    private int lowerBound(int v, int x) {
+        int lo = offsets[v];
+        int hi = offsets[v + 1];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (adj[mid] < x) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 1 || v > n) {
+            throw new IllegalArgumentException("Vertex index out of bounds: " + v + " (valid: 1-" + n + ")");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Các toán tử lai ghép có sẵn. Trừ PER_BIT_ONE_POINT (bản gốc, giữ để so sánh benchmark),
+ * tất cả thao tác trên nguyên word 64 bit bằng mặt nạ: O(n / 64) thay vì O(n) lệnh get/set.
+ */
+public enum StandardCrossover implements CrossoverOperator {
+    /** Đơn điểm, chép từng bit (Individual.crossover gốc) */
+    PER_BIT_ONE_POINT {
+        @Override
+        public Individual crossover(Individual parent1, Individual parent2, RandomGenerator rand) {
+            return Individual.crossoverUnevaluated(parent1, parent2, rand);
+        }
+    },
+    /** Đơn điểm: điểm cắt 1..n-1, bit < điểm cắt lấy từ bố 1, còn lại từ bố 2 (cùng kết quả với PER_BIT_ONE_POINT) */
+    ONE_POINT {
+        @Override
+        public Individual crossover(Individual parent1, Individual parent2, RandomGenerator rand) {
+            int n = parent1.getGraph().size();
+            int point = 1 + rand.nextInt(Math.max(1, n - 1));
+            return blend(parent1, parent2, point, n + 1);
+        }
+    },
+    /** Hai điểm: đoạn [a, b) với 1 <= a < b <= n + 1 lấy từ bố 2, phần còn lại từ bố 1 */
+    TWO_POINT {
+        @Override
+        public Individual crossover(Individual parent1, Individual parent2, RandomGenerator rand) {
+            int n = parent1.getGraph().size();
+            int a = 1 + rand.nextInt(n);
+            int b = 1 + rand.nextInt(n);
+            if (a > b) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            return blend(parent1, parent2, a, b + 1);
+        }
+    },
+    /** Đồng nhất: mỗi bit lấy từ bố 1 hoặc bố 2 với xác suất 1/2 (1 lần rand.nextLong() cho 64 bit) */
+    UNIFORM {
+        @Override
+        public Individual crossover(Individual parent1, Individual parent2, RandomGenerator rand) {
+            long[] a = parent1.getGeneWords();
+            long[] b = parent2.getGeneWords();
+            long[] child = new long[a.length];
+            for (int i = 0; i < child.length; i++) {
+                long mask = rand.nextLong();
+                child[i] = (a[i] & ~mask) | (b[i] & mask);
+            }
+            return Individual.fromGenes(parent1.getGraph(), child);
+        }
+    };
+
+    /** Con = bố 2 trên đoạn [from, to), bố 1 ở ngoài đoạn */
+    private static Individual blend(Individual parent1, Individual parent2, int from, int to) {
+        long[] child = new long[parent1.getGeneWords().length];
+        BitWords.blendRange(parent1.getGeneWords(), parent2.getGeneWords(), from, to, child);
+        return Individual.fromGenes(parent1.getGraph(), child);
+    }
+}
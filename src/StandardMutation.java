@@ -0,0 +1,44 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Các toán tử đột biến flip-bit có sẵn (cùng phân phối, khác cách lấy mẫu).
+ */
+public enum StandardMutation implements MutationOperator {
+    /** Bản gốc: 1 lần rand.nextDouble() cho mỗi gen (Individual.mutate) */
+    PER_BIT {
+        @Override
+        public void mutate(Individual individual, double mutationRate, RandomGenerator rand) {
+            individual.mutate(mutationRate, rand);
+        }
+    },
+    /**
+     * Lấy mẫu bước nhảy hình học: khoảng cách tới gen bị lật kế tiếp ~ Geometric(mutationRate),
+     * nên chỉ tốn 1 lần rand.nextDouble() cho mỗi lần lật (khoảng n * mutationRate lần thay vì n lần).
+     */
+    GEOMETRIC_SKIP {
+        @Override
+        public void mutate(Individual individual, double mutationRate, RandomGenerator rand) {
+            int n = individual.getGraph().size();
+            if (mutationRate <= 0) {
+                return;
+            }
+            if (mutationRate >= 1) {
+                for (int i = 1; i <= n; i++) {
+                    individual.flipGene(i);
+                }
+                return;
+            }
+            double logKeep = Math.log1p(-mutationRate);
+            long i = 1;
+            while (true) {
+                // số gen bỏ qua trước lần lật kế tiếp: floor(ln(U) / ln(1 - p)), U ∈ (0, 1]
+                i += (long) (Math.log(1.0 - rand.nextDouble()) / logKeep);
+                if (i > n) {
+                    return;
+                }
+                individual.flipGene((int) i);
+                i++;
+            }
+        }
+    }
+}
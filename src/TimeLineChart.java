@@ -1,171 +1,39 @@
-import javax.imageio.ImageIO;
-import javax.swing.*;
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.util.List;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
+/**
+ * Biểu đồ thời gian chạy theo thế hệ (ms). Vẽ bằng LineChart như FitnessLineChart:
+ * savePng / saveSvg chạy được ở chế độ headless, chỉ show(...) mới mở JFrame.
+ */
 public final class TimeLineChart {
 
-    private static final boolean SHOW_POINT_VALUES = true; // hiện số time trên từng điểm
+    private static final boolean SHOW_POINT_VALUES = true; // hiện số time trên từng điểm (khi ít điểm)
 
     private TimeLineChart() {}
 
-    public static void show(List<Integer> generations, List<Integer> timeMs) {
-        SwingUtilities.invokeLater(() -> {
-            JFrame frame = new JFrame("Thời gian theo Generation (ms) (Line)");
-            frame.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
-            frame.setSize(1200, 650);
-            frame.setLocationRelativeTo(null);
-            frame.setContentPane(new ChartPanel(generations, timeMs));
-            frame.setVisible(true);
-        });
+    public static LineChart chart(IntSeries generations, IntSeries timeMs) {
+        LineChart chart = new LineChart("Thời gian theo thế hệ (ms) - Auto Scale Y", "Generation", "Time (ms)");
+        chart.setPointValues(SHOW_POINT_VALUES);
+        // Thời gian hay có gai đơn lẻ: MIN_MAX giữ mọi đỉnh khi giảm điểm
+        chart.setDownsampling(Downsampler.Method.MIN_MAX);
+        chart.addSeries("Time", generations, timeMs);
+        return chart;
     }
 
-    public static void savePng(List<Integer> generations, List<Integer> timeMs, String filePath) {
-        ChartPanel panel = new ChartPanel(generations, timeMs);
-        panel.setSize(1200, 650);
-
-        BufferedImage image = new BufferedImage(1200, 650, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2 = image.createGraphics();
-        panel.paint(g2);
-        g2.dispose();
+    public static void show(IntSeries generations, IntSeries timeMs) {
+        FitnessLineChart.show(chart(generations, timeMs), "Thời gian theo Generation (ms) (Line)");
+    }
 
+    public static void savePng(IntSeries generations, IntSeries timeMs, String filePath) {
         try {
-            ImageIO.write(image, "png", new File(filePath));
+            chart(generations, timeMs).savePng(Paths.get(filePath));
         } catch (IOException e) {
             throw new RuntimeException("Không lưu được PNG: " + filePath, e);
         }
     }
 
-    private static final class ChartPanel extends JPanel {
-        private final List<Integer> gens;
-        private final List<Integer> times;
-
-        ChartPanel(List<Integer> gens, List<Integer> times) {
-            this.gens = gens;
-            this.times = times;
-            setBackground(Color.WHITE);
-        }
-
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            if (gens == null || times == null || gens.isEmpty()) return;
-
-            Graphics2D g2 = (Graphics2D) g;
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            int w = getWidth();
-            int h = getHeight();
-
-            int left = 80;
-            int right = 40;
-            int top = 60;
-            int bottom = 80;
-
-            int chartW = w - left - right;
-            int chartH = h - top - bottom;
-
-            int x0 = left;
-            int y0 = top + chartH;
-
-            // ===== TÍNH MIN/MAX TIME =====
-            int minFit = Integer.MAX_VALUE;
-            int maxFit = Integer.MIN_VALUE;
-            for (int v : times) {
-                minFit = Math.min(minFit, v);
-                maxFit = Math.max(maxFit, v);
-            }
-            if (minFit == Integer.MAX_VALUE) return;
-
-            int padding = 1; // thấy rõ các mức 41-42
-            int yMin = minFit - padding;
-            int yMax = maxFit + padding;
-            if (yMin == yMax) { yMin--; yMax++; }
-
-            // ===== AXES =====
-            g2.setColor(Color.BLACK);
-            g2.drawLine(x0, top, x0, y0);
-            g2.drawLine(x0, y0, x0 + chartW, y0);
-
-            // ===== TITLE =====
-            g2.drawString("Thời gian theo thế hệ (ms) - Auto Scale Y", left, 30);
-
-            // ===== GRID + Y TICKS (mỗi 1 time) =====
-            g2.setFont(g2.getFont().deriveFont(12f));
-            for (int yTick = yMin; yTick <= yMax; yTick++) {
-                int y = mapY(yTick, yMin, yMax, top, chartH);
-
-                // grid line
-                g2.setColor(new Color(230, 230, 230));
-                g2.drawLine(x0, y, x0 + chartW, y);
-
-                // label
-                g2.setColor(Color.BLACK);
-                g2.drawString(String.valueOf(yTick), x0 - 35, y + 4);
-            }
-
-            // ===== X LABELS (mỗi 5 gen) =====
-            int n = gens.size();
-            for (int i = 0; i < n; i++) {
-                int gen = gens.get(i);
-                if (gen % 5 == 0 || gen == 1 || gen == gens.get(n - 1)) {
-                    int x = mapX(i, n, x0, chartW);
-                    g2.setColor(new Color(230, 230, 230));
-                    g2.drawLine(x, top, x, y0);
-
-                    g2.setColor(Color.BLACK);
-                    g2.drawString(String.valueOf(gen), x - 6, y0 + 20);
-                }
-            }
-
-            // ===== VẼ LINE + POINTS =====
-            g2.setStroke(new BasicStroke(2.5f));
-            g2.setColor(new Color(220, 20, 60)); // đỏ
-
-            int prevX = -1, prevY = -1;
-            for (int i = 0; i < n; i++) {
-                int x = mapX(i, n, x0, chartW);
-                int y = mapY(times.get(i), yMin, yMax, top, chartH);
-
-                if (i > 0) g2.drawLine(prevX, prevY, x, y);
-
-                // point
-                g2.fillOval(x - 4, y - 4, 8, 8);
-
-                // value label (tùy chọn)
-                if (SHOW_POINT_VALUES) {
-                    g2.setColor(Color.BLACK);
-                    g2.drawString(String.valueOf(times.get(i)), x - 6, y - 10);
-                    g2.setColor(new Color(220, 20, 60));
-                }
-
-                prevX = x;
-                prevY = y;
-            }
-
-            // ===== AXIS TITLES =====
-            g2.setColor(Color.BLACK);
-            g2.drawString("Generation", x0 + chartW - 70, y0 + 50);
-            g2.drawString("Time (ms)", 20, top + 20);
-
-            // ===== SUMMARY TOP-RIGHT =====
-            int last = times.get(n - 1);
-            g2.drawString("Min=" + minFit + " | Max=" + maxFit + " | Last=" + last,
-                    x0 + chartW - 220, top - 20);
-        }
-
-        private int mapX(int index, int n, int x0, int chartW) {
-            if (n <= 1) return x0;
-            double t = index / (double) (n - 1);
-            return x0 + (int) Math.round(t * chartW);
-        }
-
-        private int mapY(int value, int yMin, int yMax, int top, int chartH) {
-            double t = (value - yMin) / (double) (yMax - yMin);
-            return top + chartH - (int) Math.round(t * chartH);
-        }
+    public static void saveSvg(IntSeries generations, IntSeries timeMs, Path path) throws IOException {
+        chart(generations, timeMs).saveSvg(path);
     }
 }
@@ -0,0 +1,35 @@
+import java.util.List;
+
+/**
+ * Chọn theo giải đấu: lấy ngẫu nhiên (có hoàn lại) size cá thể trong tập được phép, trả về cá thể tốt nhất.
+ * Quần thể đã sắp xếp nên "tốt nhất" là vị trí nhỏ nhất — mỗi lần select O(size), không phụ thuộc n.
+ */
+public final class TournamentSelection implements SelectionStrategy {
+    private final int size;
+
+    public TournamentSelection(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Tournament size must be at least 1: " + size);
+        }
+        this.size = size;
+    }
+
+    @Override
+    public Selector prepare(List<Individual> sorted, int[] positions) {
+        int count = (positions != null) ? positions.length : sorted.size();
+        if (count == 0) {
+            throw new IllegalArgumentException("No individuals to select from");
+        }
+        return rng -> {
+            int best = rng.nextInt(count);
+            for (int i = 1; i < size; i++) {
+                best = Math.min(best, rng.nextInt(count));
+            }
+            return sorted.get((positions != null) ? positions[best] : best);
+        };
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
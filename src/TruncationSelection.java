@@ -0,0 +1,32 @@
+import java.util.List;
+
+/**
+ * Chọn cắt ngọn: chọn đều trong phần fraction tốt nhất của tập được phép (ít nhất 1 cá thể). Mỗi lần select O(1).
+ */
+public final class TruncationSelection implements SelectionStrategy {
+    private final double fraction;
+
+    public TruncationSelection(double fraction) {
+        if (!(fraction > 0.0 && fraction <= 1.0)) {
+            throw new IllegalArgumentException("Truncation fraction must be in (0, 1]: " + fraction);
+        }
+        this.fraction = fraction;
+    }
+
+    @Override
+    public Selector prepare(List<Individual> sorted, int[] positions) {
+        int count = (positions != null) ? positions.length : sorted.size();
+        if (count == 0) {
+            throw new IllegalArgumentException("No individuals to select from");
+        }
+        int top = Math.max(1, (int) Math.ceil(count * fraction));
+        return rng -> {
+            int i = rng.nextInt(top);
+            return sorted.get((positions != null) ? positions[i] : i);
+        };
+    }
+
+    public double getFraction() {
+        return fraction;
+    }
+}
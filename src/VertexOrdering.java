@@ -0,0 +1,173 @@
+import java.util.Arrays;
+
+/**
+ * Đánh số lại đỉnh của đồ thị để các đỉnh liên quan đứng gần nhau trong chuỗi gen:
+ * lai ghép cắt theo vị trí ít phá vỡ các nhóm đỉnh dày đặc hơn, và các hàng kề / word được
+ * chạm tới khi sửa clique tập trung hơn. Giữ ánh xạ 2 chiều để báo clique theo ID gốc.
+ *
+ * Thứ tự lõi tính bằng bóc đỉnh bậc nhỏ nhất (Batagelj–Zaversnik, hàng đợi theo xô bậc), O(n + m).
+ */
+public final class VertexOrdering {
+
+    public enum Order {
+        /** Bậc giảm dần (hòa thì theo ID gốc) */
+        DEGREE,
+        /** Ngược thứ tự bóc smallest-last: đỉnh thuộc lõi sâu nhất nhận ID nhỏ nhất */
+        DEGENERACY,
+        /** Core number giảm dần; trong cùng core, duyệt BFS để gom láng giềng của nhau lại gần */
+        CORE_BFS
+    }
+
+    private final Graph graph;
+    private final int[] newToOld;
+    private final int[] oldToNew;
+
+    private VertexOrdering(Graph graph, int[] newToOld, int[] oldToNew) {
+        this.graph = graph;
+        this.newToOld = newToOld;
+        this.oldToNew = oldToNew;
+    }
+
+    /** Dựng đồ thị đã đánh số lại theo order */
+    public static VertexOrdering relabel(Graph graph, Order order) {
+        int n = graph.size();
+        int[] newToOld = switch (order) {
+            case DEGREE -> degreeOrder(graph);
+            case DEGENERACY -> degeneracyOrder(graph);
+            case CORE_BFS -> coreBfsOrder(graph);
+        };
+        int[] oldToNew = new int[n + 1];
+        for (int i = 1; i <= n; i++) {
+            oldToNew[newToOld[i]] = i;
+        }
+        return new VertexOrdering(GraphBuilder.relabel(graph, newToOld, oldToNew), newToOld, oldToNew);
+    }
+
+    // ====== CÁC THỨ TỰ (trả về newToOld, phần tử 0 không dùng) ======
+
+    private static int[] degreeOrder(Graph graph) {
+        int n = graph.size();
+        Integer[] vs = new Integer[n];
+        for (int i = 0; i < n; i++) vs[i] = i + 1;
+        Arrays.sort(vs, (a, b) -> graph.degree(a) != graph.degree(b)
+                ? Integer.compare(graph.degree(b), graph.degree(a)) : Integer.compare(a, b));
+        int[] newToOld = new int[n + 1];
+        for (int i = 0; i < n; i++) newToOld[i + 1] = vs[i];
+        return newToOld;
+    }
+
+    private static int[] degeneracyOrder(Graph graph) {
+        int n = graph.size();
+        int[] core = new int[n + 1];
+        int[] removal = peel(graph, core);
+        int[] newToOld = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            newToOld[i + 1] = removal[n - 1 - i];
+        }
+        return newToOld;
+    }
+
+    private static int[] coreBfsOrder(Graph graph) {
+        int n = graph.size();
+        int[] core = new int[n + 1];
+        int[] removal = peel(graph, core);
+
+        // Nhóm đỉnh theo core number giảm dần; trong nhóm giữ thứ tự ngược lúc bóc làm thứ tự khởi đầu BFS
+        int maxCore = 0;
+        for (int v = 1; v <= n; v++) maxCore = Math.max(maxCore, core[v]);
+        int[] start = new int[maxCore + 2];
+        for (int v = 1; v <= n; v++) start[maxCore - core[v] + 1]++;
+        for (int c = 1; c <= maxCore + 1; c++) start[c] += start[c - 1];
+        int[] grouped = new int[n];
+        int[] fill = Arrays.copyOf(start, start.length);
+        for (int i = n - 1; i >= 0; i--) {
+            int v = removal[i];
+            grouped[fill[maxCore - core[v]]++] = v;
+        }
+
+        int[] newToOld = new int[n + 1];
+        boolean[] placed = new boolean[n + 1];
+        int next = 1;
+        for (int c = 0; c <= maxCore; c++) {
+            int level = maxCore - c;
+            int head = next;
+            for (int i = start[c]; i < start[c + 1]; i++) {
+                int seed = grouped[i];
+                if (placed[seed]) continue;
+                placed[seed] = true;
+                newToOld[next++] = seed;
+                // BFS trong cùng core: newToOld[head..next) đóng vai trò hàng đợi
+                while (head < next) {
+                    int u = newToOld[head++];
+                    for (int w = graph.nextNeighbor(u, 1); w >= 1; w = graph.nextNeighbor(u, w + 1)) {
+                        if (!placed[w] && core[w] == level) {
+                            placed[w] = true;
+                            newToOld[next++] = w;
+                        }
+                    }
+                }
+            }
+        }
+        return newToOld;
+    }
+
+    /**
+     * Bóc lần lượt đỉnh có bậc còn lại nhỏ nhất. Trả về thứ tự bóc (0-based) và ghi core number vào core[].
+     */
+    static int[] peel(Graph graph, int[] core) {
+        int n = graph.size();
+        int maxDeg = 0;
+        int[] deg = new int[n + 1];
+        for (int v = 1; v <= n; v++) {
+            deg[v] = graph.degree(v);
+            maxDeg = Math.max(maxDeg, deg[v]);
+        }
+        // vert: đỉnh sắp theo bậc; pos: vị trí của đỉnh trong vert; bin: vị trí đầu của mỗi bậc
+        int[] bin = new int[maxDeg + 1];
+        for (int v = 1; v <= n; v++) bin[deg[v]]++;
+        int startPos = 0;
+        for (int d = 0; d <= maxDeg; d++) {
+            int count = bin[d];
+            bin[d] = startPos;
+            startPos += count;
+        }
+        int[] vert = new int[n];
+        int[] pos = new int[n + 1];
+        for (int v = 1; v <= n; v++) {
+            pos[v] = bin[deg[v]]++;
+            vert[pos[v]] = v;
+        }
+        for (int d = maxDeg; d > 0; d--) bin[d] = bin[d - 1];
+        bin[0] = 0;
+
+        for (int i = 0; i < n; i++) {
+            int v = vert[i];
+            core[v] = deg[v];
+            for (int u = graph.nextNeighbor(v, 1); u >= 1; u = graph.nextNeighbor(v, u + 1)) {
+                if (deg[u] > deg[v]) {
+                    // đổi chỗ u với đỉnh đầu tiên cùng bậc rồi giảm bậc của u
+                    int du = deg[u];
+                    int pu = pos[u];
+                    int pw = bin[du];
+                    int w = vert[pw];
+                    if (u != w) {
+                        pos[u] = pw;
+                        vert[pu] = w;
+                        pos[w] = pu;
+                        vert[pw] = u;
+                    }
+                    bin[du]++;
+                    deg[u]--;
+                }
+            }
+        }
+        return vert;
+    }
+
+    /** Đồ thị đã đánh số lại */
+    public Graph getGraph() { return graph; }
+    /** ID gốc của đỉnh mới i (phần tử 0 không dùng) */
+    public int[] getNewToOld() { return newToOld; }
+    /** ID mới của đỉnh gốc v */
+    public int[] getOldToNew() { return oldToNew; }
+}